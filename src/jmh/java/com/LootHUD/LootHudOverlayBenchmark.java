@@ -0,0 +1,112 @@
+package com.LootHUD;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.ui.FontManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Cost of one overlay frame with a full list of entries, drawn into an offscreen image
+ * set up like the client's overlay graphics.
+ * The warm frame is the steady state, the cold one starts with empty caches, as after
+ * new loot or a config change.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LootHudOverlayBenchmark
+{
+	private static final int MAX_NOTIFICATIONS = 5;
+	private static final long FRAME_MILLIS = 20;
+
+	@Param({"OFF", "RAINBOW"})
+	public LootHudConfig.RareItemHighlight highlight;
+
+	@Param({"false", "true"})
+	public boolean showItemNames;
+
+	private PluginFixture fixture;
+	private BufferedImage image;
+	private Graphics2D graphics;
+
+	@Setup
+	public void setUp()
+	{
+		fixture = new PluginFixture(new LootHudConfig()
+		{
+			@Override
+			public int maxNotifications()
+			{
+				return MAX_NOTIFICATIONS;
+			}
+
+			@Override
+			public boolean alwaysShowOverlay()
+			{
+				// Entries never expire while measuring
+				return true;
+			}
+
+			@Override
+			public boolean showItemNames()
+			{
+				return showItemNames;
+			}
+
+			@Override
+			public RareItemHighlight rareItemHighlight()
+			{
+				return highlight;
+			}
+
+			@Override
+			public String rareItemNames()
+			{
+				return "*godsword*, dragon*, twisted bow, *hilt";
+			}
+		});
+
+		for (int n = 0; n < MAX_NOTIFICATIONS * 4; n++)
+		{
+			fixture.receive(PluginFixture.loot(n));
+		}
+
+		image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+		graphics = image.createGraphics();
+		graphics.setFont(FontManager.getRunescapeFont());
+		graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public Dimension renderWarm()
+	{
+		fixture.advance(FRAME_MILLIS);
+		return fixture.getOverlay().render(graphics);
+	}
+
+	@Benchmark
+	public Dimension renderCold()
+	{
+		LootHudOverlay overlay = fixture.getOverlay();
+		fixture.advance(FRAME_MILLIS);
+		overlay.clearCaches();
+		return overlay.render(graphics);
+	}
+}
@@ -0,0 +1,254 @@
+package com.LootHUD;
+
+import java.awt.Color;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of the settings reads one overlay frame makes for a full list of entries, read
+ * through the config proxy and from a {@link LootHudSettings} snapshot.
+ * The proxy stands in for RuneLite's config invocation handler: reflective dispatch,
+ * a synchronized key name lookup and a synchronized cache of converted values.
+ * Taking the snapshot, which the overlay does once per config change, is measured too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LootHudSettingsBenchmark
+{
+	private static final int ENTRIES = 5;
+	private static final int ITEMS_PER_ENTRY = 8;
+
+	private LootHudConfig config;
+	private LootHudSettings settings;
+
+	@Setup
+	public void setUp()
+	{
+		config = proxyConfig();
+		settings = LootHudSettings.from(config);
+	}
+
+	@Benchmark
+	public long configProxyFrame()
+	{
+		return proxyFrame(config);
+	}
+
+	@Benchmark
+	public long settingsSnapshotFrame()
+	{
+		return snapshotFrame(settings);
+	}
+
+	@Benchmark
+	public LootHudSettings takeSnapshot()
+	{
+		return LootHudSettings.from(config);
+	}
+
+	/**
+	 * The settings reads of one overlay frame, made the way the overlay made them before
+	 * the snapshot: straight through the config proxy, repeated inside the loops.
+	 */
+	private static long proxyFrame(LootHudConfig config)
+	{
+		long acc = 0;
+		for (int entry = 0; entry < ENTRIES; entry++)
+		{
+			long value = 1_000L << (entry * 3);
+
+			// Size pass and draw pass both measure the entry
+			for (int pass = 0; pass < 2; pass++)
+			{
+				acc += config.minValueToShow() + config.minValueToShow();
+				acc += config.showItemNames() ? 1 : 0;
+				acc += config.maxIconsPerEntry();
+				for (int item = 0; item < ITEMS_PER_ENTRY; item++)
+				{
+					acc += config.showItemNames() ? 1 : 0;
+					acc += config.itemNamePosition().ordinal() + config.itemNamePosition().ordinal();
+				}
+				acc += config.showItemNames() ? 1 : 0;
+				acc += config.maxIconsPerEntry();
+			}
+
+			acc += config.fadeOlderEntries() ? 1 : 0;
+			acc += config.fadeOutAnimation() && !config.alwaysShowOverlay() ? config.fadeOutDuration() : 0;
+			acc += config.fadeOutAnimation() ? 1 : 0;
+
+			// Entry background, border and header
+			acc += config.showItemNames() ? config.maxIconsPerEntry() : 0;
+			acc += config.borderWidth();
+			acc += config.backgroundColor().getRGB() + config.headerBackgroundColor().getRGB() + config.gradientEndColor().getRGB();
+			acc += config.rareItemHighlight().ordinal();
+			if (config.valueBasedOverlay())
+			{
+				acc += proxyOverlayColor(config, value).getRGB();
+				Color header = proxyOverlayColor(config, value);
+				acc += header.equals(config.backgroundColor()) ? config.headerBackgroundColor().getRGB()
+					: new Color(Math.max(0, header.getRed() - 40), Math.max(0, header.getGreen() - 40),
+						Math.max(0, header.getBlue() - 40), header.getAlpha()).getRGB();
+			}
+			acc += config.useGradient() ? 1 : 0;
+			acc += config.borderColor().getRGB();
+			acc += config.showLootTypeIcon() ? 1 : 0;
+			acc += config.groupLoot() ? config.groupKillThreshold() : 0;
+			acc += !config.groupLoot() ? 1 : 0;
+			acc += config.showTotalValue() ? 1 : 0;
+			acc += config.sourceNameColor().getRGB();
+			acc += config.showTotalValue() ? config.valueTextColor().getRGB() : 0;
+
+			// Item rows
+			acc += config.showItemIcons() && config.showItemNames() ? config.maxIconsPerEntry() : 0;
+			for (int item = 0; item < ITEMS_PER_ENTRY; item++)
+			{
+				acc += proxyItemColor(config, value >> item).getRGB();
+				acc += config.itemNamePosition().ordinal() + config.itemNamePosition().ordinal();
+			}
+			acc += config.maxNotifications();
+		}
+		return acc;
+	}
+
+	/**
+	 * The same reads as {@link #proxyFrame}, made from a snapshot taken once per frame.
+	 */
+	private static long snapshotFrame(LootHudSettings settings)
+	{
+		long acc = 0;
+		for (int entry = 0; entry < ENTRIES; entry++)
+		{
+			long value = 1_000L << (entry * 3);
+
+			for (int pass = 0; pass < 2; pass++)
+			{
+				acc += settings.minValueToShow + settings.minValueToShow;
+				acc += settings.showItemNames ? 1 : 0;
+				acc += settings.maxIconsPerEntry;
+				for (int item = 0; item < ITEMS_PER_ENTRY; item++)
+				{
+					acc += settings.showItemNames ? 1 : 0;
+					acc += settings.itemNamePosition.ordinal() + settings.itemNamePosition.ordinal();
+				}
+				acc += settings.showItemNames ? 1 : 0;
+				acc += settings.maxIconsPerEntry;
+			}
+
+			acc += settings.fadeOlderEntries ? 1 : 0;
+			acc += settings.fadeOutAnimation && !settings.alwaysShowOverlay ? settings.fadeOutDuration : 0;
+			acc += settings.fadeOutAnimation ? 1 : 0;
+
+			acc += settings.showItemNames ? settings.maxIconsPerEntry : 0;
+			acc += settings.borderWidth;
+			acc += settings.backgroundColor.getRGB() + settings.headerBackgroundColor.getRGB() + settings.gradientEndColor.getRGB();
+			acc += settings.rareItemHighlight.ordinal();
+			if (settings.valueBasedOverlay)
+			{
+				acc += settings.getOverlayValueColor(value).getRGB();
+				acc += settings.getHeaderValueColor(value).getRGB();
+			}
+			acc += settings.useGradient ? 1 : 0;
+			acc += settings.borderColor.getRGB();
+			acc += settings.showLootTypeIcon ? 1 : 0;
+			acc += settings.groupLoot ? settings.groupKillThreshold : 0;
+			acc += !settings.groupLoot ? 1 : 0;
+			acc += settings.showTotalValue ? 1 : 0;
+			acc += settings.sourceNameColor.getRGB();
+			acc += settings.showTotalValue ? settings.valueTextColor.getRGB() : 0;
+
+			acc += settings.showItemIcons && settings.showItemNames ? settings.maxIconsPerEntry : 0;
+			for (int item = 0; item < ITEMS_PER_ENTRY; item++)
+			{
+				acc += settings.getItemValueColor(value >> item).getRGB();
+				acc += settings.itemNamePosition.ordinal() + settings.itemNamePosition.ordinal();
+			}
+			acc += settings.maxNotifications;
+		}
+		return acc;
+	}
+
+	private static Color proxyOverlayColor(LootHudConfig config, long value)
+	{
+		if (value >= config.valueThreshold5())
+		{
+			return config.overlayColor5();
+		}
+		else if (value >= config.valueThreshold4())
+		{
+			return config.overlayColor4();
+		}
+		else if (value >= config.valueThreshold3())
+		{
+			return config.overlayColor3();
+		}
+		else if (value >= config.valueThreshold2())
+		{
+			return config.overlayColor2();
+		}
+		else if (value >= config.valueThreshold1())
+		{
+			return config.overlayColor1();
+		}
+		return config.backgroundColor();
+	}
+
+	private static Color proxyItemColor(LootHudConfig config, long value)
+	{
+		if (value >= config.valueThreshold5())
+		{
+			return config.valueColor5();
+		}
+		else if (value >= config.valueThreshold4())
+		{
+			return config.valueColor4();
+		}
+		else if (value >= config.valueThreshold3())
+		{
+			return config.valueColor3();
+		}
+		else if (value >= config.valueThreshold2())
+		{
+			return config.valueColor2();
+		}
+		else if (value >= config.valueThreshold1())
+		{
+			return config.valueColor1();
+		}
+		return config.itemNameColor();
+	}
+
+	private static LootHudConfig proxyConfig()
+	{
+		LootHudConfig defaults = new LootHudConfig()
+		{
+		};
+		Map<Method, String> keyNames = Collections.synchronizedMap(new HashMap<>());
+		Map<Method, Object> values = Collections.synchronizedMap(new HashMap<>());
+
+		return (LootHudConfig) Proxy.newProxyInstance(LootHudConfig.class.getClassLoader(),
+			new Class<?>[]{LootHudConfig.class},
+			(proxy, method, methodArgs) ->
+			{
+				keyNames.computeIfAbsent(method, Method::getName);
+				Object value = values.get(method);
+				if (value == null)
+				{
+					value = method.invoke(defaults);
+					values.put(method, value);
+				}
+				return value;
+			});
+	}
+}
@@ -0,0 +1,73 @@
+package com.LootHUD;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of receiving one loot event: filtering, pricing and classifying its items when it
+ * arrives, then grouping, deduplicating and publishing it on the next game tick.
+ * The item manager is a stub, its lookups are part of the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LootIngestionBenchmark
+{
+	private static final long GAME_TICK_MILLIS = 600;
+
+	@Param({"false", "true"})
+	public boolean groupLoot;
+
+	@Param({"false", "true"})
+	public boolean debugStats;
+
+	private PluginFixture fixture;
+	private int events;
+
+	@Setup
+	public void setUp()
+	{
+		fixture = new PluginFixture(new LootHudConfig()
+		{
+			@Override
+			public boolean groupLoot()
+			{
+				return groupLoot;
+			}
+
+			@Override
+			public String rareItemNames()
+			{
+				return "*godsword*, dragon*, twisted bow, *hilt";
+			}
+
+			@Override
+			public String ignoredItemNames()
+			{
+				return "bones, big bones, *seed";
+			}
+
+			@Override
+			public boolean showDebugStats()
+			{
+				return debugStats;
+			}
+		});
+	}
+
+	@Benchmark
+	public LootHudPlugin receiveLoot()
+	{
+		// One loot event per game tick, so entries expire as they would in play
+		fixture.advance(GAME_TICK_MILLIS);
+		fixture.receive(PluginFixture.loot(events++));
+		return fixture.getPlugin();
+	}
+}
@@ -0,0 +1,85 @@
+package com.LootHUD;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of matching a batch of item names against the rare and ignored item lists, as
+ * the plugin does for every item it hasn't classified yet.
+ * The per-pattern matcher is measured next to the compiled pattern set the plugin uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WildcardMatcherBenchmark
+{
+	// The default rare list plus the kind of wildcards the config descriptions suggest
+	private static final String[] PATTERNS = {
+		"Twisted bow", "Scythe of vitur", "Tumeken's shadow", "Torva full helm", "Masori body",
+		"dragon *", "*fire cape", "*godsword", "*hilt", "Bones", "bones*", "*gloves",
+		"*of the gods", "Clue scroll*", "*pet*", "Uncut *"
+	};
+
+	private Set<String> patterns;
+	private WildcardPatternSet patternSet;
+	private String[] names;
+
+	@Setup
+	public void setUp()
+	{
+		patterns = new LinkedHashSet<>(Arrays.asList(PATTERNS));
+		patternSet = WildcardPatternSet.compile(patterns);
+		names = PluginFixture.ITEM_NAMES;
+	}
+
+	@Benchmark
+	public int matches()
+	{
+		int matched = 0;
+		for (String name : names)
+		{
+			if (WildcardMatcher.matches("dragon *", name))
+			{
+				matched++;
+			}
+		}
+		return matched;
+	}
+
+	@Benchmark
+	public int anyMatches()
+	{
+		int matched = 0;
+		for (String name : names)
+		{
+			if (WildcardMatcher.anyMatches(patterns, name))
+			{
+				matched++;
+			}
+		}
+		return matched;
+	}
+
+	@Benchmark
+	public int patternSetMatches()
+	{
+		int matched = 0;
+		for (String name : names)
+		{
+			if (patternSet.matches(name))
+			{
+				matched++;
+			}
+		}
+		return matched;
+	}
+}
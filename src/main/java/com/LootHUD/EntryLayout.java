@@ -0,0 +1,103 @@
+package com.LootHUD;
+
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import net.runelite.client.game.ItemStack;
+
+/**
+ * Measured layout of a loot entry: its size, header text and where each item goes.
+ * Measuring every label with the font metrics is slow, so the overlay computes a layout
+ * once per entry and keeps drawing from it until the settings, the font or the entry's
+ * item info change.
+ * Positions are relative to the entry's top-left corner.
+ */
+class EntryLayout
+{
+    static final ItemSlot[] NO_ITEMS = new ItemSlot[0];
+
+    private final LootHudSettings settings;
+    private final Font font;
+    private final LootItemInfo itemInfo;
+
+    final int width;
+    final int height;
+
+    // Header
+    final int textX;
+    final String headerText;
+    final String valueText;
+    final int valueX;
+
+    // Items and the "+X" indicator for items that don't fit the grid
+    final ItemSlot[] items;
+    final String moreText;
+    final int moreX;
+    final int moreY;
+    final int moreTextX;
+
+    EntryLayout(LootHudSettings settings, Font font, LootItemInfo itemInfo, int width, int height, int textX, String headerText,
+                String valueText, int valueX, ItemSlot[] items, String moreText, int moreX, int moreY, int moreTextX)
+    {
+        this.settings = settings;
+        this.font = font;
+        this.itemInfo = itemInfo;
+        this.width = width;
+        this.height = height;
+        this.textX = textX;
+        this.headerText = headerText;
+        this.valueText = valueText;
+        this.valueX = valueX;
+        this.items = items;
+        this.moreText = moreText;
+        this.moreX = moreX;
+        this.moreY = moreY;
+        this.moreTextX = moreTextX;
+    }
+
+    /**
+     * Checks if this layout was measured with the given settings, font and item info.
+     * Every config change produces a new settings snapshot, so comparing the snapshot
+     * by identity is enough to catch any setting that affects the layout.
+     * @param settings Current settings
+     * @param font Current font
+     * @param itemInfo Current item info of the entry
+     * @return true if the layout can be reused
+     */
+    boolean isValidFor(LootHudSettings settings, Font font, LootItemInfo itemInfo)
+    {
+        return this.settings == settings && this.itemInfo == itemInfo
+                && (this.font == font || this.font.equals(font));
+    }
+
+    /**
+     * An item icon with its optional name label and the item's display data.
+     */
+    static class ItemSlot
+    {
+        final ItemStack item;
+        final boolean showQuantity;
+        final boolean rare;
+        final int valueTier;
+        final int iconX;
+        final int iconY;
+        // Null when the name isn't shown or doesn't fit
+        final String name;
+        final int textX;
+        final int textY;
+        // Icon, set once it has finished loading
+        BufferedImage image;
+
+        ItemSlot(ItemStack item, LootItemInfo info, int index, int iconX, int iconY, String name, int textX, int textY)
+        {
+            this.item = item;
+            this.showQuantity = info.isQuantityShown(index);
+            this.rare = info.isRare(index);
+            this.valueTier = info.getValueTier(index);
+            this.iconX = iconX;
+            this.iconY = iconY;
+            this.name = name;
+            this.textX = textX;
+            this.textY = textY;
+        }
+    }
+}
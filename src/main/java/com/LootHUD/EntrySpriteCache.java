@@ -0,0 +1,192 @@
+package com.LootHUD;
+
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import net.runelite.client.util.AsyncBufferedImage;
+
+/**
+ * Pre-rendered images of loot entries, so an entry that doesn't change is drawn once
+ * and then blitted every frame.
+ * Sprites are dropped when their entry is no longer drawn, when the entry's layout changes
+ * and when the settings change. The total size of all sprites is bounded by a pixel budget;
+ * entries that don't fit in it are drawn directly.
+ * Only used from the client thread.
+ */
+class EntrySpriteCache
+{
+    private final long maxPixels;
+    private final Map<LootHudEntry, Sprite> sprites = new IdentityHashMap<>();
+    private long pixels;
+    private int frame;
+    private LootHudSettings settings;
+
+    // Sprite being rendered, item images loading after this finishes make it stale
+    private Sprite building;
+    // Number of sprites that went stale so far, images composited from sprites are out of date when it changes
+    private volatile int staleCount;
+
+    /**
+     * @param maxPixels Maximum number of pixels held by all sprites together
+     */
+    EntrySpriteCache(long maxPixels)
+    {
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Starts a frame, dropping every sprite if the settings changed since the last one.
+     * @param settings Settings the frame is drawn with
+     */
+    void beginFrame(LootHudSettings settings)
+    {
+        if (settings != this.settings)
+        {
+            clear();
+            this.settings = settings;
+        }
+        frame++;
+    }
+
+    /**
+     * Ends a frame, dropping the sprites of entries that weren't drawn in it.
+     */
+    void endFrame()
+    {
+        for (Iterator<Sprite> it = sprites.values().iterator(); it.hasNext(); )
+        {
+            Sprite sprite = it.next();
+            if (sprite.frame != frame)
+            {
+                pixels -= sprite.pixels();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the sprite of an entry.
+     * @param entry Entry to draw
+     * @param layout Current layout of the entry
+     * @return the sprite, or null if there is none or it's out of date
+     */
+    BufferedImage get(LootHudEntry entry, EntryLayout layout)
+    {
+        Sprite sprite = sprites.get(entry);
+        if (sprite == null)
+        {
+            return null;
+        }
+
+        if (sprite.layout != layout || sprite.stale)
+        {
+            remove(entry);
+            return null;
+        }
+
+        sprite.frame = frame;
+        return sprite.image;
+    }
+
+    /**
+     * Creates an empty sprite for an entry. It must be drawn and then {@link #finish finished}
+     * before anything else is allocated.
+     * @param entry Entry to draw
+     * @param layout Current layout of the entry
+     * @return transparent image the size of the entry, or null if it doesn't fit in the budget
+     */
+    BufferedImage allocate(LootHudEntry entry, EntryLayout layout)
+    {
+        remove(entry);
+
+        long size = (long) layout.width * layout.height;
+        if (layout.width <= 0 || layout.height <= 0 || pixels + size > maxPixels)
+        {
+            return null;
+        }
+
+        Sprite sprite = new Sprite(layout, new BufferedImage(layout.width, layout.height, BufferedImage.TYPE_INT_ARGB));
+        sprite.frame = frame;
+        sprites.put(entry, sprite);
+        pixels += size;
+        building = sprite;
+        return sprite.image;
+    }
+
+    /**
+     * Marks the sprite being drawn as stale once an image drawn into it finishes loading.
+     * Does nothing when no sprite is being drawn or the image is already loaded.
+     * @param image Image drawn into the sprite
+     */
+    void watch(BufferedImage image)
+    {
+        Sprite sprite = building;
+        if (sprite == null || !(image instanceof AsyncBufferedImage))
+        {
+            return;
+        }
+
+        // Runs right away if the image is already loaded, that's ignored since it was drawn complete
+        ((AsyncBufferedImage) image).onLoaded(() ->
+        {
+            if (building != sprite)
+            {
+                sprite.stale = true;
+                staleCount++;
+            }
+        });
+    }
+
+    /**
+     * Finishes the sprite returned by the last {@link #allocate}.
+     */
+    void finish()
+    {
+        building = null;
+    }
+
+    /**
+     * @return number of sprites that went stale since the cache was created
+     */
+    int getStaleCount()
+    {
+        return staleCount;
+    }
+
+    void clear()
+    {
+        sprites.clear();
+        pixels = 0;
+        building = null;
+    }
+
+    private void remove(LootHudEntry entry)
+    {
+        Sprite sprite = sprites.remove(entry);
+        if (sprite != null)
+        {
+            pixels -= sprite.pixels();
+        }
+    }
+
+    private static class Sprite
+    {
+        private final EntryLayout layout;
+        private final BufferedImage image;
+        private int frame;
+        // Set when an item image finished loading after the sprite was drawn
+        private volatile boolean stale;
+
+        private Sprite(EntryLayout layout, BufferedImage image)
+        {
+            this.layout = layout;
+            this.image = image;
+        }
+
+        private long pixels()
+        {
+            return (long) image.getWidth() * image.getHeight();
+        }
+    }
+}
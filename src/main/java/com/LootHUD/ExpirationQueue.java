@@ -0,0 +1,77 @@
+package com.LootHUD;
+
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Min-heap of items keyed by expiration time.
+ * Checking for expired items only looks at the head of the heap, so the cost no longer
+ * grows with the number of stored items. Items are never removed early; owners should
+ * ignore expirations for items they no longer hold or whose expiration was extended.
+ * @param <T> Type of the scheduled items
+ */
+class ExpirationQueue<T>
+{
+    private final PriorityQueue<Scheduled<T>> queue = new PriorityQueue<>();
+
+    /**
+     * Schedules an item to expire.
+     * @param expirationTime {@link LootHudClock} time the item expires at, {@link LootHudClock#NEVER} never expires
+     * @param item The item
+     */
+    void schedule(long expirationTime, T item)
+    {
+        if (expirationTime == LootHudClock.NEVER)
+        {
+            return;
+        }
+        queue.add(new Scheduled<>(expirationTime, item));
+    }
+
+    /**
+     * Checks if any scheduled item has expired.
+     * @param nowMillis Current {@link LootHudClock} time
+     * @return true if at least one item is due
+     */
+    boolean hasExpired(long nowMillis)
+    {
+        Scheduled<T> head = queue.peek();
+        return head != null && nowMillis > head.expirationMillis;
+    }
+
+    /**
+     * Removes every expired item from the queue, in expiration order.
+     * @param nowMillis Current {@link LootHudClock} time
+     * @param onExpired Called for each expired item
+     */
+    void pollExpired(long nowMillis, Consumer<T> onExpired)
+    {
+        while (hasExpired(nowMillis))
+        {
+            onExpired.accept(queue.poll().item);
+        }
+    }
+
+    void clear()
+    {
+        queue.clear();
+    }
+
+    private static class Scheduled<T> implements Comparable<Scheduled<T>>
+    {
+        private final long expirationMillis;
+        private final T item;
+
+        Scheduled(long expirationMillis, T item)
+        {
+            this.expirationMillis = expirationMillis;
+            this.item = item;
+        }
+
+        @Override
+        public int compareTo(Scheduled<T> other)
+        {
+            return Long.compare(expirationMillis, other.expirationMillis);
+        }
+    }
+}
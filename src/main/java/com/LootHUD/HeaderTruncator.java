@@ -0,0 +1,133 @@
+package com.LootHUD;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shortens entry headers with an ellipsis so they fit the space left beside the value.
+ * The cut point is found with a binary search over the name length instead of removing
+ * one character at a time, and results are remembered per name, kill text, width and font
+ * since the same sources keep dropping loot.
+ * Only used from the client thread.
+ */
+class HeaderTruncator
+{
+    private static final String ELLIPSIS = "...";
+    // Never cut the name shorter than this
+    private static final int MIN_NAME_LENGTH = 3;
+
+    private final Map<Key, String> results;
+
+    /**
+     * @param capacity Maximum number of remembered headers, least recently used ones are dropped first
+     */
+    HeaderTruncator(int capacity)
+    {
+        this.results = new LinkedHashMap<Key, String>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Builds the header for a name and kill text, cutting the name short with an ellipsis
+     * if the whole header is wider than the available space.
+     * @param metrics Metrics of the font the header is drawn with
+     * @param name Source name
+     * @param killText Kill count suffix, may be empty
+     * @param availableWidth Width the header has to fit in
+     * @return header text
+     */
+    String truncate(FontMetrics metrics, String name, String killText, int availableWidth)
+    {
+        Key key = new Key(name, killText, availableWidth, metrics.getFont());
+        String header = results.get(key);
+        if (header == null)
+        {
+            header = computeHeader(metrics, name, killText, availableWidth);
+            results.put(key, header);
+        }
+        return header;
+    }
+
+    void clear()
+    {
+        results.clear();
+    }
+
+    private static String computeHeader(FontMetrics metrics, String name, String killText, int availableWidth)
+    {
+        if (metrics.stringWidth(name + killText) <= availableWidth)
+        {
+            return name + killText;
+        }
+
+        // Longest prefix that still fits with the ellipsis, widths grow with the prefix length
+        int low = Math.min(name.length(), MIN_NAME_LENGTH);
+        int high = name.length();
+        while (low < high)
+        {
+            int mid = (low + high + 1) >>> 1;
+            if (metrics.stringWidth(name.substring(0, mid) + ELLIPSIS + killText) <= availableWidth)
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return name.substring(0, low) + ELLIPSIS + killText;
+    }
+
+    private static final class Key
+    {
+        private final String name;
+        private final String killText;
+        private final int availableWidth;
+        private final Font font;
+
+        private Key(String name, String killText, int availableWidth, Font font)
+        {
+            this.name = name;
+            this.killText = killText;
+            this.availableWidth = availableWidth;
+            this.font = font;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            return availableWidth == other.availableWidth
+                    && name.equals(other.name)
+                    && killText.equals(other.killText)
+                    && Objects.equals(font, other.font);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash = name.hashCode();
+            hash = 31 * hash + killText.hashCode();
+            hash = 31 * hash + availableWidth;
+            hash = 31 * hash + Objects.hashCode(font);
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.LootHUD;
+
+import java.awt.AlphaComposite;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * The entries of a whole frame drawn into one image, reused for as long as nothing that's
+ * drawn changes, so frames without new loot, expiry, animation or config changes cost one blit.
+ * The image is current while the plugin's change generation, the number of stale sprites and
+ * the font stay the same, and until the first entry starts fading out.
+ * Only used from the client thread.
+ */
+class HudComposite
+{
+    private BufferedImage image;
+    private int width;
+    private int height;
+
+    private boolean valid;
+    private long generation;
+    private int staleSprites;
+    private Font font;
+    private long validUntil;
+
+    /**
+     * @param generation Plugin change generation read before the frame's state
+     * @param staleSprites Number of sprites that went stale so far
+     * @param font Font the frame is drawn with
+     * @param now Time of the frame
+     * @return whether the last composited frame can be drawn again
+     */
+    boolean isValid(long generation, int staleSprites, Font font, long now)
+    {
+        return valid && this.generation == generation && this.staleSprites == staleSprites
+                && (this.font == font || font.equals(this.font)) && now < validUntil;
+    }
+
+    /**
+     * Starts drawing a new composite. The previous one is no longer valid.
+     * @param target Graphics the composite is drawn to, its hints and font are copied
+     * @param width Width of the entries
+     * @param height Height of the entries
+     * @return graphics of a cleared image, to be handed to {@link #finish}
+     */
+    Graphics2D begin(Graphics2D target, int width, int height)
+    {
+        valid = false;
+        if (image == null || image.getWidth() < width || image.getHeight() < height)
+        {
+            // Grows to the largest frame seen, so it's allocated only a few times
+            int imageWidth = Math.max(width, image == null ? 0 : image.getWidth());
+            int imageHeight = Math.max(height, image == null ? 0 : image.getHeight());
+            image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+        }
+        this.width = width;
+        this.height = height;
+
+        Graphics2D graphics = image.createGraphics();
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setComposite(AlphaComposite.SrcOver);
+        graphics.setRenderingHints(target.getRenderingHints());
+        graphics.setFont(target.getFont());
+        return graphics;
+    }
+
+    /**
+     * Finishes the composite started by {@link #begin}.
+     * @param graphics Graphics returned by begin
+     * @param reusable Whether the composite may be drawn again in later frames
+     * @param generation Plugin change generation the frame was drawn for
+     * @param staleSprites Number of sprites that went stale before the frame
+     * @param font Font the frame was drawn with
+     * @param validUntil Time from which the composite is out of date, when the first entry starts fading
+     */
+    void finish(Graphics2D graphics, boolean reusable, long generation, int staleSprites, Font font, long validUntil)
+    {
+        graphics.dispose();
+        this.valid = reusable;
+        this.generation = generation;
+        this.staleSprites = staleSprites;
+        this.font = font;
+        this.validUntil = validUntil;
+    }
+
+    /**
+     * Draws the composite at the origin of the graphics.
+     */
+    void draw(Graphics2D graphics)
+    {
+        graphics.drawImage(image, 0, 0, width, height, 0, 0, width, height, null);
+    }
+
+    void invalidate()
+    {
+        valid = false;
+    }
+
+    /**
+     * Drops the image.
+     */
+    void clear()
+    {
+        image = null;
+        valid = false;
+        font = null;
+    }
+}
@@ -0,0 +1,223 @@
+package com.LootHUD;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+
+/**
+ * Rare/ignored verdicts for every item in the catalogue, precomputed in the background
+ * whenever the patterns change.
+ * Item names have to be resolved on the client thread, so they are collected there in
+ * small slices per client tick; the pattern matching itself is split across the
+ * fork-join pool. Finished results are published by a single volatile write and are
+ * only used while the patterns they were built from are still current.
+ */
+@Slf4j
+class ItemCatalogueIndex
+{
+    private static final int NAME_BATCH_SIZE = 2048;
+    private static final int MATCH_SPLIT_THRESHOLD = 1024;
+
+    private final Client client;
+    private final ClientThread clientThread;
+    private final ItemManager itemManager;
+
+    private final AtomicInteger sweepGeneration = new AtomicInteger();
+    private volatile Verdicts verdicts;
+
+    @Inject
+    private ItemCatalogueIndex(Client client, ClientThread clientThread, ItemManager itemManager)
+    {
+        this.client = client;
+        this.clientThread = clientThread;
+        this.itemManager = itemManager;
+    }
+
+    /**
+     * Starts a new sweep of the item catalogue, superseding any sweep still running.
+     * @param rareItems Compiled rare item patterns
+     * @param ignoredItems Compiled ignored item patterns
+     */
+    void rebuild(WildcardPatternSet rareItems, WildcardPatternSet ignoredItems)
+    {
+        int generation = sweepGeneration.incrementAndGet();
+
+        if (rareItems.isEmpty() && ignoredItems.isEmpty()) {
+            // Nothing can match, every item is known to be neither rare nor ignored
+            verdicts = new Verdicts(rareItems, ignoredItems, new BitSet(), new BitSet(), Integer.MAX_VALUE);
+            return;
+        }
+
+        clientThread.invokeLater(new NameCollector(generation, rareItems, ignoredItems));
+    }
+
+    /**
+     * Drops the published verdicts and cancels any sweep still running.
+     */
+    void clear()
+    {
+        sweepGeneration.incrementAndGet();
+        verdicts = null;
+    }
+
+    /**
+     * Gets the precomputed classification of an item.
+     * @param itemId Item ID
+     * @param rareItems The rare item patterns currently in use
+     * @param ignoredItems The ignored item patterns currently in use
+     * @return combination of {@link ItemClassificationCache#RARE} and {@link ItemClassificationCache#IGNORED},
+     * or {@link ItemClassificationCache#UNKNOWN} if no finished sweep covers these patterns and item
+     */
+    int get(int itemId, WildcardPatternSet rareItems, WildcardPatternSet ignoredItems)
+    {
+        Verdicts current = verdicts;
+        if (current == null || current.rareItems != rareItems || current.ignoredItems != ignoredItems
+                || itemId < 0 || itemId >= current.itemCount) {
+            return ItemClassificationCache.UNKNOWN;
+        }
+
+        int flags = ItemClassificationCache.NONE;
+        if (current.rare.get(itemId)) {
+            flags |= ItemClassificationCache.RARE;
+        }
+        if (current.ignored.get(itemId)) {
+            flags |= ItemClassificationCache.IGNORED;
+        }
+        return flags;
+    }
+
+    private class NameCollector implements BooleanSupplier
+    {
+        private final int generation;
+        private final WildcardPatternSet rareItems;
+        private final WildcardPatternSet ignoredItems;
+        private String[] names;
+        private int next;
+
+        NameCollector(int generation, WildcardPatternSet rareItems, WildcardPatternSet ignoredItems)
+        {
+            this.generation = generation;
+            this.rareItems = rareItems;
+            this.ignoredItems = ignoredItems;
+        }
+
+        @Override
+        public boolean getAsBoolean()
+        {
+            if (generation != sweepGeneration.get()) {
+                return true;
+            }
+
+            if (names == null) {
+                int itemCount = client.getItemCount();
+                if (itemCount <= 0) {
+                    // Item definitions aren't loaded yet, try again next tick
+                    return false;
+                }
+                names = new String[itemCount];
+            }
+
+            int end = Math.min(names.length, next + NAME_BATCH_SIZE);
+            for (; next < end; next++) {
+                try {
+                    names[next] = itemManager.getItemComposition(next).getName();
+                } catch (Exception e) {
+                    // Leave unnamed, it will never match
+                }
+            }
+
+            if (next < names.length) {
+                return false;
+            }
+
+            String[] collected = names;
+            ForkJoinPool.commonPool().execute(() -> {
+                BitSet[] result = new MatchTask(collected, rareItems, ignoredItems, 0, collected.length).invoke();
+                if (generation == sweepGeneration.get()) {
+                    verdicts = new Verdicts(rareItems, ignoredItems, result[0], result[1], collected.length);
+                    log.debug("Classified {} catalogue items: {} rare, {} ignored",
+                            collected.length, result[0].cardinality(), result[1].cardinality());
+                }
+            });
+            return true;
+        }
+    }
+
+    private static class MatchTask extends RecursiveTask<BitSet[]>
+    {
+        private final String[] names;
+        private final WildcardPatternSet rareItems;
+        private final WildcardPatternSet ignoredItems;
+        private final int start;
+        private final int end;
+
+        MatchTask(String[] names, WildcardPatternSet rareItems, WildcardPatternSet ignoredItems, int start, int end)
+        {
+            this.names = names;
+            this.rareItems = rareItems;
+            this.ignoredItems = ignoredItems;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected BitSet[] compute()
+        {
+            if (end - start <= MATCH_SPLIT_THRESHOLD) {
+                BitSet rare = new BitSet(end);
+                BitSet ignored = new BitSet(end);
+                for (int id = start; id < end; id++) {
+                    String name = names[id];
+                    if (name == null) {
+                        continue;
+                    }
+                    if (rareItems.matches(name)) {
+                        rare.set(id);
+                    }
+                    if (ignoredItems.matches(name)) {
+                        ignored.set(id);
+                    }
+                }
+                return new BitSet[]{rare, ignored};
+            }
+
+            int mid = (start + end) >>> 1;
+            MatchTask left = new MatchTask(names, rareItems, ignoredItems, start, mid);
+            MatchTask right = new MatchTask(names, rareItems, ignoredItems, mid, end);
+            left.fork();
+            BitSet[] result = right.compute();
+            BitSet[] leftResult = left.join();
+            result[0].or(leftResult[0]);
+            result[1].or(leftResult[1]);
+            return result;
+        }
+    }
+
+    /**
+     * Immutable sweep result, tied to the exact pattern sets it was computed from.
+     */
+    private static class Verdicts
+    {
+        private final WildcardPatternSet rareItems;
+        private final WildcardPatternSet ignoredItems;
+        private final BitSet rare;
+        private final BitSet ignored;
+        private final int itemCount;
+
+        Verdicts(WildcardPatternSet rareItems, WildcardPatternSet ignoredItems, BitSet rare, BitSet ignored, int itemCount)
+        {
+            this.rareItems = rareItems;
+            this.ignoredItems = ignoredItems;
+            this.rare = rare;
+            this.ignored = ignored;
+            this.itemCount = itemCount;
+        }
+    }
+}
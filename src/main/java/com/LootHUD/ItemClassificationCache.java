@@ -0,0 +1,61 @@
+package com.LootHUD;
+
+import java.util.Arrays;
+
+/**
+ * Lazily filled table of rare/ignored verdicts keyed by item ID.
+ * Verdicts only depend on the item name and the configured patterns, so the
+ * table is cleared as a whole whenever the rare or ignored item patterns change.
+ */
+class ItemClassificationCache
+{
+    static final int NONE = 0;
+    static final int RARE = 1;
+    static final int IGNORED = 1 << 1;
+
+    /**
+     * Returned by {@link #get(int)} when the item has not been classified yet.
+     */
+    static final int UNKNOWN = -1;
+
+    // Stored as flags + 1 so a zeroed array means "not classified"
+    private byte[] table = new byte[0];
+
+    /**
+     * Gets the cached classification for an item.
+     * @param itemId Item ID
+     * @return combination of {@link #RARE} and {@link #IGNORED}, or {@link #UNKNOWN}
+     */
+    int get(int itemId)
+    {
+        if (itemId < 0 || itemId >= table.length)
+        {
+            return UNKNOWN;
+        }
+        return table[itemId] - 1;
+    }
+
+    /**
+     * Stores the classification for an item.
+     * @param itemId Item ID
+     * @param flags combination of {@link #RARE} and {@link #IGNORED}
+     */
+    void put(int itemId, int flags)
+    {
+        if (itemId < 0)
+        {
+            return;
+        }
+
+        if (itemId >= table.length)
+        {
+            table = Arrays.copyOf(table, Math.max(itemId + 1, table.length * 2));
+        }
+        table[itemId] = (byte) (flags + 1);
+    }
+
+    void clear()
+    {
+        Arrays.fill(table, (byte) 0);
+    }
+}
@@ -0,0 +1,112 @@
+package com.LootHUD;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.util.AsyncBufferedImage;
+
+/**
+ * Least recently used cache of item stack icons, keyed by item ID, quantity and whether
+ * the quantity is drawn.
+ * Icons the item manager is still loading are handed out but only cached once they
+ * finished loading, so a blank icon is never kept.
+ * Only used from the client thread, the item manager finishes loading icons on it too.
+ */
+class ItemImageCache
+{
+    private final ItemManager itemManager;
+    private final Map<Long, BufferedImage> images;
+    // Icons still loading, so they are requested only once
+    private final Map<Long, BufferedImage> loading = new HashMap<>();
+
+    /**
+     * @param itemManager Item manager to load icons from
+     * @param capacity Maximum number of cached icons
+     */
+    ItemImageCache(ItemManager itemManager, int capacity)
+    {
+        this.itemManager = itemManager;
+        this.images = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the icon of an item stack.
+     * @param itemId Item ID
+     * @param quantity Stack size
+     * @param showQuantity Whether the stack size is drawn on the icon
+     * @return the icon, possibly still loading, or null if there is none
+     */
+    BufferedImage get(int itemId, int quantity, boolean showQuantity)
+    {
+        long key = key(itemId, quantity, showQuantity);
+        BufferedImage image = images.get(key);
+        if (image != null)
+        {
+            return image;
+        }
+
+        image = loading.get(key);
+        if (image != null)
+        {
+            return image;
+        }
+
+        image = itemManager.getImage(itemId, quantity, showQuantity);
+        if (image == null)
+        {
+            return null;
+        }
+
+        if (image instanceof AsyncBufferedImage)
+        {
+            AsyncBufferedImage asyncImage = (AsyncBufferedImage) image;
+            loading.put(key, asyncImage);
+            // Runs right away if the icon is already loaded
+            asyncImage.onLoaded(() ->
+            {
+                if (loading.remove(key) == asyncImage)
+                {
+                    images.put(key, asyncImage);
+                }
+            });
+        }
+        else
+        {
+            images.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Checks if an icon returned by {@link #get} has finished loading and can be kept.
+     * @param itemId Item ID
+     * @param quantity Stack size
+     * @param showQuantity Whether the stack size is drawn on the icon
+     * @return true if the icon is loaded
+     */
+    boolean isLoaded(int itemId, int quantity, boolean showQuantity)
+    {
+        return !loading.containsKey(key(itemId, quantity, showQuantity));
+    }
+
+    void clear()
+    {
+        images.clear();
+        loading.clear();
+    }
+
+    private static long key(int itemId, int quantity, boolean showQuantity)
+    {
+        // Item IDs stay well below 2^30, which leaves room for the flag in the high half
+        return ((long) ((itemId << 1) | (showQuantity ? 1 : 0)) << 32) | (quantity & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,137 @@
+package com.LootHUD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.runelite.client.game.ItemStack;
+
+/**
+ * Accumulates item quantities by item ID without boxing.
+ * Uses an open-addressing table pointing into dense ID/quantity arrays, so adding a
+ * kill updates quantities in place and items keep the order they were first seen in.
+ * {@link ItemStack}s are only created when {@link #asList()} is called after a change.
+ */
+class ItemQuantityMap
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Open-addressing table of dense index + 1, 0 marks a free slot
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private long[] quantities = new long[INITIAL_CAPACITY];
+    private int size;
+    private int modCount;
+
+    private List<ItemStack> materialized = Collections.emptyList();
+    private int materializedModCount = -1;
+
+    /**
+     * Adds a quantity to an item, inserting the item if it's new.
+     * @param itemId Item ID
+     * @param quantity Quantity to add
+     */
+    void add(int itemId, long quantity)
+    {
+        int slot = findSlot(table, itemId);
+        int index = table[slot] - 1;
+        if (index >= 0)
+        {
+            quantities[index] += quantity;
+        }
+        else
+        {
+            if (size == ids.length)
+            {
+                grow();
+                slot = findSlot(table, itemId);
+            }
+
+            ids[size] = itemId;
+            quantities[size] = quantity;
+            size++;
+            table[slot] = size;
+        }
+        modCount++;
+    }
+
+    void addAll(List<ItemStack> items)
+    {
+        for (ItemStack item : items)
+        {
+            add(item.getId(), item.getQuantity());
+        }
+    }
+
+    /**
+     * Gets the accumulated quantity of an item.
+     * @param itemId Item ID
+     * @return quantity, or 0 if the item was never added
+     */
+    long get(int itemId)
+    {
+        int index = table[findSlot(table, itemId)] - 1;
+        return index >= 0 ? quantities[index] : 0;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Gets the accumulated items in first-seen order.
+     * The list is immutable, so it can be handed to other threads, and is only rebuilt
+     * when the quantities changed since the last call.
+     * @return immutable list of item stacks
+     */
+    List<ItemStack> asList()
+    {
+        if (materializedModCount != modCount)
+        {
+            List<ItemStack> previous = materialized;
+            List<ItemStack> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+            {
+                int quantity = (int) Math.min(Integer.MAX_VALUE, quantities[i]);
+
+                // Items keep their index, so unchanged stacks can be reused
+                ItemStack stack = i < previous.size() ? previous.get(i) : null;
+                if (stack == null || stack.getQuantity() != quantity)
+                {
+                    stack = new ItemStack(ids[i], quantity);
+                }
+                items.add(stack);
+            }
+            materialized = Collections.unmodifiableList(items);
+            materializedModCount = modCount;
+        }
+        return materialized;
+    }
+
+    private void grow()
+    {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+
+        int[] newTable = new int[capacity * 2];
+        for (int i = 0; i < size; i++)
+        {
+            newTable[findSlot(newTable, ids[i])] = i + 1;
+        }
+        table = newTable;
+    }
+
+    private int findSlot(int[] table, int itemId)
+    {
+        int mask = table.length - 1;
+        int hash = itemId * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (table[slot] != 0 && ids[table[slot] - 1] != itemId)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,87 @@
+package com.LootHUD;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds with power of two buckets.
+ * Recording is a few arithmetic operations on preallocated arrays, so it can sit on the
+ * render path. Percentiles are approximate, reported as the upper bound of their bucket.
+ * Not thread safe, only used from the client thread.
+ */
+class LatencyHistogram
+{
+    // Bucket i holds durations from 2^(i-1) up to 2^i ns, the last one everything from about 4.5 minutes
+    private static final int BUCKETS = 40;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Records one duration.
+     * @param nanos Duration in nanoseconds
+     */
+    void record(long nanos)
+    {
+        int bucket = nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        counts[bucket]++;
+        count++;
+        total += nanos;
+        if (nanos > max)
+        {
+            max = nanos;
+        }
+    }
+
+    long getCount()
+    {
+        return count;
+    }
+
+    long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * @return mean duration in nanoseconds, 0 if nothing was recorded
+     */
+    long getMean()
+    {
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * Gets an approximate percentile.
+     * @param percentile Percentile between 0 and 100
+     * @return upper bound in nanoseconds of the bucket holding the percentile, 0 if nothing was recorded
+     */
+    long getPercentile(double percentile)
+    {
+        if (count == 0)
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+            {
+                return i == BUCKETS - 1 ? max : Math.min(max, (1L << i) - 1);
+            }
+        }
+        return max;
+    }
+
+    void reset()
+    {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.LootHUD;
+
+import java.util.List;
+import net.runelite.client.game.ItemStack;
+import net.runelite.http.api.loottracker.LootRecordType;
+
+/**
+ * Remembers the fingerprints of recently processed loot events to drop duplicates.
+ * Fingerprints are 64-bit hashes kept in a small ring together with the time they were
+ * seen, so checking an event allocates nothing and also catches duplicates that arrive
+ * interleaved with loot from other sources.
+ */
+class LootFingerprintWindow
+{
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final long windowMillis;
+    private final long[] fingerprints;
+    private final long[] seenTimes;
+    private int next;
+    private int size;
+
+    /**
+     * @param capacity Maximum number of fingerprints remembered
+     * @param windowMillis How long a fingerprint counts as recent
+     */
+    LootFingerprintWindow(int capacity, long windowMillis)
+    {
+        this.windowMillis = windowMillis;
+        this.fingerprints = new long[capacity];
+        this.seenTimes = new long[capacity];
+    }
+
+    /**
+     * Checks if an event was already seen within the window, remembering it if not.
+     * @param fingerprint Fingerprint of the event, see {@link #fingerprint}
+     * @param nowMillis {@link LootHudClock} time the event was received
+     * @return true if the event is a duplicate and should be skipped
+     */
+    boolean isDuplicate(long fingerprint, long nowMillis)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (fingerprints[i] == fingerprint && nowMillis - seenTimes[i] < windowMillis)
+            {
+                return true;
+            }
+        }
+
+        // Overwrite the oldest slot once the ring is full
+        fingerprints[next] = fingerprint;
+        seenTimes[next] = nowMillis;
+        next = (next + 1) % fingerprints.length;
+        size = Math.max(size, next == 0 ? fingerprints.length : next);
+        return false;
+    }
+
+    void clear()
+    {
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * Computes the fingerprint of a loot event.
+     * @param sourceName Name of the loot source
+     * @param type Type of the loot source
+     * @param amount Number of kills the event covers
+     * @param totalValue Total value of the items
+     * @param items Items in display order
+     * @return 64-bit fingerprint
+     */
+    static long fingerprint(String sourceName, LootRecordType type, int amount, long totalValue, List<ItemStack> items)
+    {
+        long hash = sourceName.length();
+        for (int i = 0; i < sourceName.length(); i++)
+        {
+            hash = (hash + sourceName.charAt(i)) * MULTIPLIER;
+        }
+        hash = (hash + type.ordinal()) * MULTIPLIER;
+        hash = (hash + amount) * MULTIPLIER;
+        hash = (hash + totalValue) * MULTIPLIER;
+        hash = (hash + items.size()) * MULTIPLIER;
+
+        for (int i = 0; i < items.size(); i++)
+        {
+            ItemStack item = items.get(i);
+            hash = (hash + item.getId()) * MULTIPLIER;
+            hash = (hash + item.getQuantity()) * MULTIPLIER;
+        }
+
+        // Final avalanche so every input bit affects every output bit
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
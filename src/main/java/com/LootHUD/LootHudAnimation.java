@@ -0,0 +1,119 @@
+package com.LootHUD;
+
+import java.awt.Color;
+
+/**
+ * Colors of the rainbow and pulse highlights for the current frame.
+ * The phases are computed once per frame from lookup tables, and every color handed out
+ * comes from a pool built when the settings change, so animating any number of rare
+ * entries allocates nothing per frame.
+ * Only used from the client thread.
+ */
+class LootHudAnimation
+{
+    // Table sizes, powers of two so phases wrap with a mask. 1024 hues keep every channel
+    // within 2 levels of computing the color from the exact hue
+    private static final int HUE_STEPS = 1024;
+    private static final int SINE_STEPS = 256;
+
+    private static final float RAINBOW_SATURATION = 0.8f;
+    private static final float RAINBOW_BRIGHTNESS = 0.9f;
+    // Hue shift between neighbouring entries, in table steps
+    private static final float RAINBOW_POSITION_SHIFT = 0.2f * HUE_STEPS;
+
+    private static final float[] SINE = new float[SINE_STEPS];
+
+    static
+    {
+        for (int i = 0; i < SINE_STEPS; i++)
+        {
+            SINE[i] = (float) Math.sin(i * Math.PI * 2 / SINE_STEPS);
+        }
+    }
+
+    private LootHudSettings settings;
+
+    // Pools, rebuilt when the settings change
+    private final Color[] rainbowColors = new Color[HUE_STEPS];
+    private final Color[] highlightColors = new Color[256];
+    private final Color[] textColors = new Color[256];
+
+    // Phases of the current frame
+    private int rainbowPhase;
+    private Color pulseHighlightColor;
+    private Color pulseTextColor;
+
+    /**
+     * Computes the animation phases for a frame.
+     * @param settings Settings the frame is drawn with
+     * @param elapsedMillis Time since the animations started
+     */
+    void update(LootHudSettings settings, long elapsedMillis)
+    {
+        if (settings != this.settings)
+        {
+            buildPools(settings);
+            this.settings = settings;
+        }
+
+        // Hue advances speed / 10 cycles per second
+        rainbowPhase = (int) ((elapsedMillis * settings.rainbowAnimationSpeed * HUE_STEPS / 10_000) & (HUE_STEPS - 1));
+
+        long pulsePeriod = (long) (2000 / (settings.pulseAnimationSpeed / 10.0f));
+        int sineIndex = (int) ((elapsedMillis % pulsePeriod) * SINE_STEPS / pulsePeriod);
+        float sinePulse = SINE[sineIndex & (SINE_STEPS - 1)];
+
+        Color highlight = settings.staticHighlightColor;
+        pulseHighlightColor = highlightColors[pulseAlpha(highlight.getAlpha(), settings.pulseAlphaRange, sinePulse)];
+        pulseTextColor = textColors[pulseAlpha(255, settings.pulseAlphaRange / 2, sinePulse)];
+    }
+
+    /**
+     * @param position Entry position, neighbouring entries are shifted along the hue circle
+     * @return rainbow color with the configured rainbow alpha
+     */
+    Color getRainbowColor(int position)
+    {
+        int index = (rainbowPhase + (int) (position * RAINBOW_POSITION_SHIFT)) & (HUE_STEPS - 1);
+        return rainbowColors[index];
+    }
+
+    /**
+     * @return highlight color with the pulsing alpha, for the background and border
+     */
+    Color getPulseHighlightColor()
+    {
+        return pulseHighlightColor;
+    }
+
+    /**
+     * @return white with the pulsing alpha, for header text
+     */
+    Color getPulseTextColor()
+    {
+        return pulseTextColor;
+    }
+
+    private void buildPools(LootHudSettings settings)
+    {
+        int rainbowAlpha = settings.rainbowAlpha << 24;
+        for (int i = 0; i < HUE_STEPS; i++)
+        {
+            int rgb = Color.HSBtoRGB(i / (float) HUE_STEPS, RAINBOW_SATURATION, RAINBOW_BRIGHTNESS);
+            rainbowColors[i] = new Color(rainbowAlpha | (rgb & 0xFFFFFF), true);
+        }
+
+        Color highlight = settings.staticHighlightColor;
+        for (int alpha = 0; alpha < 256; alpha++)
+        {
+            highlightColors[alpha] = new Color(highlight.getRed(), highlight.getGreen(), highlight.getBlue(), alpha);
+            textColors[alpha] = new Color(255, 255, 255, alpha);
+        }
+    }
+
+    private static int pulseAlpha(int baseAlpha, int alphaRange, float sinePulse)
+    {
+        int pulseAlpha = (int) (baseAlpha + (sinePulse * alphaRange / 2));
+        return Math.max(0, Math.min(255, pulseAlpha));
+    }
+}
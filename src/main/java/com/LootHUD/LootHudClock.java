@@ -0,0 +1,28 @@
+package com.LootHUD;
+
+import java.util.concurrent.TimeUnit;
+import javax.inject.Singleton;
+
+/**
+ * Monotonic millisecond clock shared by the plugin and the overlay.
+ * Callers sample it once (per frame or per loot event) and pass the value along, so
+ * every check in that pass sees the same time. Expiration times are stored as
+ * primitive values of this clock; tests can subclass it to control time.
+ */
+@Singleton
+class LootHudClock
+{
+    /**
+     * Expiration time for entries that never expire.
+     */
+    static final long NEVER = Long.MAX_VALUE;
+
+    /**
+     * Gets the current time.
+     * @return monotonic time in milliseconds, only meaningful relative to other values of this clock
+     */
+    long millis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
@@ -75,6 +75,22 @@ public interface LootHudConfig extends Config
 	)
 	String valueThresholdsSection = "valueThresholds";
 
+	@ConfigSection(
+			name = "Performance",
+			description = "Keep the overlay fast on slower machines",
+			position = 9,
+			closedByDefault = true
+	)
+	String performanceSection = "performance";
+
+	@ConfigSection(
+			name = "Debug",
+			description = "Diagnostics for troubleshooting performance",
+			position = 10,
+			closedByDefault = true
+	)
+	String debugSection = "debug";
+
 	// ========== GENERAL SECTION ==========
 	@ConfigItem(
 			keyName = "toggleKeybind",
@@ -842,6 +858,70 @@ public interface LootHudConfig extends Config
 		return true;
 	}
 
+	// ========== PERFORMANCE SECTION ==========
+	@ConfigItem(
+			keyName = "adaptiveQuality",
+			name = "Adaptive quality",
+			description = "Simplify the overlay while it takes longer than the frame budget to draw: first the gradient, then animated highlights, then fading, then everything but the item icons",
+			position = 0,
+			section = performanceSection
+	)
+	default boolean adaptiveQuality()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "frameBudget",
+			name = "Frame budget",
+			description = "Average time the overlay may take to draw a frame before it's simplified (microseconds)",
+			position = 1,
+			section = performanceSection
+	)
+	@Range(min = 100, max = 50000)
+	default int frameBudget()
+	{
+		return 2000;
+	}
+
+	@ConfigItem(
+			keyName = "qualityRecoveryThreshold",
+			name = "Recovery threshold",
+			description = "Restore the next quality level once its frames are expected to take less than this share of the frame budget (percent)",
+			position = 2,
+			section = performanceSection
+	)
+	@Range(min = 10, max = 90)
+	default int qualityRecoveryThreshold()
+	{
+		return 50;
+	}
+
+	// ========== DEBUG SECTION ==========
+	@ConfigItem(
+			keyName = "showDebugStats",
+			name = "Show performance stats",
+			description = "Time rendering and loot handling, show the results below the loot and log them every minute",
+			position = 0,
+			section = debugSection
+	)
+	default boolean showDebugStats()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "recordLootJournal",
+			name = "Record loot journal",
+			description = "Write every loot event to a file in .runelite/loot-hud, so the session can be replayed when testing performance",
+			position = 1,
+			section = debugSection
+	)
+	default boolean recordLootJournal()
+	{
+		return false;
+	}
+
 	// ========== ENUM DEFINITIONS ==========
 	enum RareItemHighlight
 	{
@@ -1,27 +1,44 @@
 package com.LootHUD;
 
-import java.time.Instant;
 import java.util.List;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import net.runelite.client.game.ItemStack;
 import net.runelite.http.api.loottracker.LootRecordType;
 
+/**
+ * A loot entry as published to the overlay. Its loot data never changes once it's published,
+ * the plugin replaces the entry instead. Only the overlay's render state, the fade alpha and
+ * the layout, is written afterwards, from the render thread.
+ */
 @Data
 class LootHudEntry
 {
     private final String sourceName;
     private final List<ItemStack> items;
     private final int killCount;
-    private final Instant expirationTime;
+    private final long expirationTime;
     private final long totalValue;
     private final LootRecordType type;
     private final boolean isRare;
     private final boolean isGrouped;
 
-    // Animation state
+    // Per-item display data, the entry is replaced when the rare patterns or value thresholds change
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final LootItemInfo itemInfo;
+
+    // Animation state, only touched by the overlay
+    @EqualsAndHashCode.Exclude
     private float currentAlpha = 1.0f;
 
-    public LootHudEntry(String sourceName, List<ItemStack> items, int killCount, Instant expirationTime, long totalValue, LootRecordType type, boolean isRare, boolean isGrouped)
+    // Render state, only touched by the overlay
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private EntryLayout layout;
+
+    public LootHudEntry(String sourceName, List<ItemStack> items, int killCount, long expirationTime, long totalValue, LootRecordType type, boolean isRare, boolean isGrouped, LootItemInfo itemInfo)
     {
         this.sourceName = sourceName;
         this.items = items;
@@ -31,36 +48,49 @@ class LootHudEntry
         this.type = type;
         this.isRare = isRare;
         this.isGrouped = isGrouped;
+        this.itemInfo = itemInfo;
+    }
+
+    /**
+     * Copies this entry with new item info, for when the rare patterns or value thresholds change.
+     * @param itemInfo Item info of the copy
+     * @return new entry without render state
+     */
+    LootHudEntry withItemInfo(LootItemInfo itemInfo)
+    {
+        return new LootHudEntry(sourceName, items, killCount, expirationTime, totalValue, type, isRare, isGrouped, itemInfo);
     }
 
     /**
      * Checks if this loot entry has expired.
+     * @param nowMillis current {@link LootHudClock} time
      * @return true if the current time is after the expiration time, false otherwise
      */
-    public boolean isExpired()
+    public boolean isExpired(long nowMillis)
     {
-        return Instant.now().isAfter(expirationTime);
+        return nowMillis > expirationTime;
     }
 
     /**
      * Gets the remaining display time in milliseconds.
+     * @param nowMillis current {@link LootHudClock} time
      * @return milliseconds remaining before expiration
      */
-    public long getRemainingMillis()
+    public long getRemainingMillis(long nowMillis)
     {
-        Instant now = Instant.now();
-        if (now.isAfter(expirationTime)) {
+        if (nowMillis > expirationTime) {
             return 0;
         }
-        return expirationTime.toEpochMilli() - now.toEpochMilli();
+        return expirationTime - nowMillis;
     }
 
     /**
      * Updates fade-out animation based on current time.
      * @param fadeDurationMillis how long the fade-out animation should last (milliseconds)
+     * @param nowMillis current {@link LootHudClock} time
      * @return current alpha value (1.0 = fully opaque, 0.0 = fully transparent)
      */
-    public float updateFadeAnimation(long fadeDurationMillis)
+    public float updateFadeAnimation(long fadeDurationMillis, long nowMillis)
     {
         if (fadeDurationMillis <= 0)
         {
@@ -68,7 +98,7 @@ class LootHudEntry
             return currentAlpha;
         }
 
-        long remaining = getRemainingMillis();
+        long remaining = getRemainingMillis(nowMillis);
 
         // If we have more time than the fade duration, stay fully opaque
         if (remaining > fadeDurationMillis)
@@ -1,32 +1,31 @@
 package com.LootHUD;
 
 import java.awt.AlphaComposite;
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Composite;
 import java.awt.Dimension;
-import java.awt.GradientPaint;
+import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.List;
 import javax.inject.Inject;
 import net.runelite.api.Constants;
-import net.runelite.api.Point;
-import net.runelite.api.ItemComposition;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.ItemStack;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayPosition;
 import net.runelite.client.ui.overlay.OverlayPriority;
-import net.runelite.client.ui.overlay.OverlayUtil;
 import net.runelite.client.util.QuantityFormatter;
 import net.runelite.http.api.loottracker.LootRecordType;
 
 class LootHudOverlay extends Overlay
 {
     private final LootHudPlugin plugin;
-    private final LootHudConfig config;
     private final ItemManager itemManager;
+    private final LootHudClock clock;
+    private final LootHudStats stats;
 
     private static final int PADDING = 4;
     private static final int ITEM_GAP = 2;
@@ -34,15 +33,54 @@ class LootHudOverlay extends Overlay
     private static final int ITEM_SIZE = Constants.ITEM_SPRITE_WIDTH;
     private static final int TYPE_ICON_SIZE = 12;
     private static final int ITEM_NAME_PADDING = 4;
-
-    private long animationStartTime = System.currentTimeMillis();
+    // About 8 MB of ARGB pixels, enough for a full list of large entries
+    private static final long MAX_SPRITE_PIXELS = 2_000_000;
+
+    private static final int MAX_TRUNCATED_HEADERS = 256;
+    private static final int MAX_ITEM_IMAGES = 512;
+    private static final long STATS_REFRESH_MILLIS = 500;
+
+    private static final Color MORE_ITEMS_BACKGROUND = new Color(60, 60, 60, 200);
+    private static final Color NPC_COLOR = new Color(255, 100, 100, 200);
+    private static final Color PLAYER_COLOR = new Color(100, 100, 255, 200);
+    private static final Color PICKPOCKET_COLOR = new Color(255, 200, 100, 200);
+    private static final Color EVENT_COLOR = new Color(100, 255, 100, 200);
+    private static final Color OTHER_COLOR = new Color(200, 200, 200, 200);
+    // Fade alphas are rounded to 1/255 steps, the resolution of a colour channel
+    private static final int ALPHA_LEVELS = 255;
+
+    private final LootHudAnimation animation = new LootHudAnimation();
+    private final EntrySpriteCache spriteCache = new EntrySpriteCache(MAX_SPRITE_PIXELS);
+    private final HeaderTruncator headerTruncator = new HeaderTruncator(MAX_TRUNCATED_HEADERS);
+    private final ItemImageCache itemImages;
+    private final TranslucentFill fill = new TranslucentFill();
+    private final HudComposite composite = new HudComposite();
+    private final QualityGovernor governor = new QualityGovernor();
+    // Fade composites by alpha level, so entries fading out don't allocate one every frame
+    private final AlphaComposite[] alphaComposites = new AlphaComposite[ALPHA_LEVELS + 1];
+
+    private final long animationStartTime;
+
+    // Returned from render, reused so frames don't allocate
+    private final Dimension size = new Dimension();
+    private final Dimension sizeWithStats = new Dimension();
+    // Set when an item image that hasn't loaded yet was drawn this frame
+    private boolean drewLoadingImage;
+
+    // Debug stats section, refreshed every STATS_REFRESH_MILLIS
+    private String[] statsLines;
+    private long statsLinesTime;
+    private int statsWidth;
 
     @Inject
-    private LootHudOverlay(LootHudPlugin plugin, LootHudConfig config, ItemManager itemManager)
+    private LootHudOverlay(LootHudPlugin plugin, ItemManager itemManager, LootHudClock clock, LootHudStats stats)
     {
         this.plugin = plugin;
-        this.config = config;
         this.itemManager = itemManager;
+        this.clock = clock;
+        this.stats = stats;
+        this.itemImages = new ItemImageCache(itemManager, MAX_ITEM_IMAGES);
+        this.animationStartTime = clock.millis();
 
         // Make overlay movable but NOT resizable - we'll handle sizing automatically
         setPosition(OverlayPosition.DYNAMIC);
@@ -55,39 +93,102 @@ class LootHudOverlay extends Overlay
 
     @Override
     public Dimension render(Graphics2D graphics)
+    {
+        // Read before the settings and entries, a change made after this is seen by the next frame
+        long generation = plugin.getChangeGeneration();
+        // Sample the settings once so every entry in this frame sees the same values
+        LootHudSettings settings = governor.apply(plugin.getSettings());
+        if (!settings.showDebugStats && !settings.adaptiveQuality)
+        {
+            return renderEntries(graphics, settings, generation);
+        }
+
+        long start = System.nanoTime();
+        Dimension size = renderEntries(graphics, settings, generation);
+        long elapsed = System.nanoTime() - start;
+        if (settings.showDebugStats)
+        {
+            stats.frameTimes.record(elapsed);
+        }
+        // Frames without entries say nothing about what drawing them costs
+        if (size != null && governor.record(elapsed))
+        {
+            // The next frame draws with the new tier's settings
+            composite.invalidate();
+        }
+
+        if (!settings.showDebugStats || !plugin.isOverlayVisible())
+        {
+            return size;
+        }
+        return drawStats(graphics, size, settings);
+    }
+
+    private Dimension renderEntries(Graphics2D graphics, LootHudSettings settings, long generation)
     {
         if (!plugin.isOverlayVisible())
         {
+            spriteCache.clear();
+            composite.invalidate();
             return null;
         }
 
+        // Sample the clock once so every entry in this frame sees the same time
+        long now = clock.millis();
+
         List<LootHudEntry> entries = plugin.getRecentLoot();
         if (entries.isEmpty())
         {
+            spriteCache.clear();
+            composite.invalidate();
             return null;
         }
 
+        // Nothing that's drawn changed since the last frame, draw it again
+        Font font = graphics.getFont();
+        int staleSprites = spriteCache.getStaleCount();
+        if (composite.isValid(generation, staleSprites, font, now))
+        {
+            composite.draw(graphics);
+            return size;
+        }
+
+        spriteCache.beginFrame(settings);
+        animation.update(settings, now - animationStartTime);
+
         // Calculate total size needed for all entries
         int totalHeight = 0;
         int maxWidth = 0;
         int entriesCounted = 0;
 
-        for (LootHudEntry entry : entries)
+        // Animated entries change every frame, fading ones from the time the first starts fading
+        boolean animated = false;
+        long fadeStart = Long.MAX_VALUE;
+        long fadeMillis = settings.fadeOutAnimation && !settings.alwaysShowOverlay ? settings.fadeOutDuration * 1000L : 0;
+
+        for (int i = 0; i < entries.size(); i++)
         {
-            if (config.minValueToShow() > 0 && entry.getTotalValue() < config.minValueToShow()) {
+            LootHudEntry entry = entries.get(i);
+            if (settings.minValueToShow > 0 && entry.getTotalValue() < settings.minValueToShow) {
                 continue;
             }
 
-            int entryWidth = calculateEntryWidth(graphics, entry);
-            int entryHeight = calculateEntryHeight(entry);
+            EntryLayout layout = getLayout(graphics, entry, settings);
 
-            maxWidth = Math.max(maxWidth, entryWidth);
-            totalHeight += entryHeight + 2;
+            maxWidth = Math.max(maxWidth, layout.width);
+            totalHeight += layout.height + 2;
             entriesCounted++;
+
+            animated |= isAnimated(getHighlight(entry, settings));
+            if (fadeMillis > 0) {
+                fadeStart = Math.min(fadeStart, entry.getExpirationTime() - fadeMillis);
+            }
         }
 
         // If no entries after filtering, don't render
         if (maxWidth == 0 || entriesCounted == 0) {
+            spriteCache.endFrame();
+            composite.invalidate();
             return null;
         }
 
@@ -97,8 +198,29 @@ class LootHudOverlay extends Overlay
         }
 
         // ALWAYS return the exact size needed for current content
-        Dimension calculatedSize = new Dimension(maxWidth, totalHeight);
+        size.setSize(maxWidth, totalHeight);
 
+        if (animated || now >= fadeStart) {
+            composite.invalidate();
+            drawEntries(graphics, entries, now, settings);
+        } else {
+            // Drawn into the composite, later frames reuse it until something changes
+            Graphics2D compositeGraphics = composite.begin(graphics, maxWidth, totalHeight);
+            drewLoadingImage = false;
+            drawEntries(compositeGraphics, entries, now, settings);
+            // Item images still loading are drawn again once they have loaded
+            composite.finish(compositeGraphics, !drewLoadingImage, generation, staleSprites, font, fadeStart);
+            composite.draw(graphics);
+        }
+
+        // Drop the sprites of entries that expired or weren't drawn
+        spriteCache.endFrame();
+
+        return size;
+    }
+
+    private void drawEntries(Graphics2D graphics, List<LootHudEntry> entries, long now, LootHudSettings settings)
+    {
         // Draw each entry
         int yOffset = 0;
         int entriesDrawn = 0;
@@ -107,31 +229,33 @@ class LootHudOverlay extends Overlay
         {
             LootHudEntry entry = entries.get(i);
 
-            if (config.minValueToShow() > 0 && entry.getTotalValue() < config.minValueToShow()) {
+            if (settings.minValueToShow > 0 && entry.getTotalValue() < settings.minValueToShow) {
                 continue;
             }
 
             // Apply fade effect if enabled and there are multiple entries
             Composite originalComposite = null;
-            if (config.fadeOlderEntries() && entries.size() > 1) {
+            if (settings.fadeOlderEntries && entries.size() > 1) {
                 originalComposite = graphics.getComposite();
                 float alpha = calculateAlphaForPosition(i, entries.size());
-                graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+                graphics.setComposite(getAlphaComposite(alpha));
+            }
+
+            // Update fade-out animation if enabled
+            if (settings.fadeOutAnimation && !settings.alwaysShowOverlay) {
+                entry.updateFadeAnimation(settings.fadeOutDuration * 1000L, now);
             }
 
             // Apply fade-out animation if enabled (slow)
             float currentAlpha = entry.getCurrentAlpha();
-            if (config.fadeOutAnimation() && currentAlpha < 1.0f) {
+            if (settings.fadeOutAnimation && currentAlpha < 1.0f) {
                 if (originalComposite == null) {
                     originalComposite = graphics.getComposite();
                 }
-                graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, currentAlpha));
+                graphics.setComposite(getAlphaComposite(currentAlpha));
             }
 
-            // Calculate this entry's specific width
-            int entryWidth = calculateEntryWidth(graphics, entry);
-
-            yOffset += drawEntry(graphics, entry, yOffset, entryWidth, i);
+            yOffset += drawEntry(graphics, entry, getLayout(graphics, entry, settings), yOffset, i, settings);
 
             // Restore original composite if we changed it
             if (originalComposite != null) {
@@ -140,36 +264,240 @@ class LootHudOverlay extends Overlay
 
             entriesDrawn++;
 
-            if (entriesDrawn >= config.maxNotifications()) {
+            if (entriesDrawn >= settings.maxNotifications) {
                 break;
             }
         }
+    }
+
+    /**
+     * Draws the debug stats below the entries.
+     * @param entriesSize Size of the entries drawn this frame, null if there were none
+     * @return size of the entries and the stats together
+     */
+    private Dimension drawStats(Graphics2D graphics, Dimension entriesSize, LootHudSettings settings)
+    {
+        FontMetrics metrics = graphics.getFontMetrics();
+        long now = clock.millis();
+        if (statsLines == null || now - statsLinesTime >= STATS_REFRESH_MILLIS)
+        {
+            // Formatting allocates, so the text is only refreshed a few times per second
+            statsLines = stats.toLines();
+            statsLinesTime = now;
+            statsWidth = 0;
+            for (String line : statsLines)
+            {
+                statsWidth = Math.max(statsWidth, metrics.stringWidth(line));
+            }
+            statsWidth += PADDING * 2;
+        }
+
+        int lineHeight = metrics.getHeight();
+        int statsHeight = statsLines.length * lineHeight + PADDING * 2;
+        int y = entriesSize == null ? 0 : entriesSize.height + 2;
+
+        fill.fill(graphics, settings.backgroundColor, 0, y, statsWidth, statsHeight);
+
+        int textY = y + PADDING + metrics.getAscent();
+        for (String line : statsLines)
+        {
+            drawText(graphics, line, PADDING, textY, Color.LIGHT_GRAY);
+            textY += lineHeight;
+        }
+
+        int width = entriesSize == null ? statsWidth : Math.max(entriesSize.width, statsWidth);
+        sizeWithStats.setSize(width, y + statsHeight);
+        return sizeWithStats;
+    }
 
-        return calculatedSize;
+    /**
+     * Drops pre-rendered entries and frames, remembered headers, item icons and the fill scratch image,
+     * and goes back to full quality.
+     * Must be called on the client thread.
+     */
+    void clearCaches()
+    {
+        spriteCache.clear();
+        composite.clear();
+        governor.reset();
+        headerTruncator.clear();
+        itemImages.clear();
+        fill.clear();
+    }
+
+    /**
+     * Gets the layout of an entry, measuring it only when the entry is new or the settings
+     * or font changed since it was last measured.
+     */
+    private EntryLayout getLayout(Graphics2D graphics, LootHudEntry entry, LootHudSettings settings)
+    {
+        Font font = graphics.getFont();
+        EntryLayout layout = entry.getLayout();
+        if (layout == null || !layout.isValidFor(settings, font, entry.getItemInfo()))
+        {
+            layout = computeLayout(graphics.getFontMetrics(), font, entry, settings);
+            entry.setLayout(layout);
+        }
+        return layout;
     }
 
-    private int calculateEntryWidth(Graphics2D graphics, LootHudEntry entry)
+    private EntryLayout computeLayout(FontMetrics metrics, Font font, LootHudEntry entry, LootHudSettings settings)
     {
-        if (config.showItemNames() && !entry.getItems().isEmpty()) {
+        int entryWidth = calculateEntryWidth(metrics, entry, settings);
+        int entryHeight = calculateEntryHeight(entry, settings);
+
+        int textXOffset = PADDING;
+        if (settings.showLootTypeIcon) {
+            textXOffset += TYPE_ICON_SIZE + 4;
+        }
+
+        // Format kill count text
+        String killText = "";
+        if (entry.isGrouped()) {
+            killText = " (x" + entry.getKillCount() + ")";
+        } else if (settings.groupLoot && entry.getKillCount() > settings.groupKillThreshold) {
+            killText = " (x" + entry.getKillCount() + ")";
+        } else if (!settings.groupLoot && entry.getKillCount() > 1) {
+            killText = " (x" + entry.getKillCount() + ")";
+        }
+
+        // Truncate if too long
+        int availableWidth = entryWidth - (PADDING * 2) - textXOffset;
+        if (settings.showTotalValue) {
+            // Reserve space for value text
+            availableWidth -= 80; // Approximate width for value text
+        }
+
+        String headerText = headerTruncator.truncate(metrics, entry.getSourceName(), killText, availableWidth);
+
+        String valueText = null;
+        int valueX = 0;
+        if (settings.showTotalValue && entry.getTotalValue() > 0) {
+            valueText = QuantityFormatter.quantityToStackSize(entry.getTotalValue()) + " gp";
+            valueX = entryWidth - PADDING - metrics.stringWidth(valueText);
+        }
+
+        EntryLayout.ItemSlot[] items = EntryLayout.NO_ITEMS;
+        String moreText = null;
+        int moreX = 0;
+        int moreY = 0;
+        int moreTextX = 0;
+        if (settings.showItemIcons && !entry.getItems().isEmpty()) {
+            if (settings.showItemNames) {
+                items = layoutItemsWithNames(metrics, entry, entryWidth, settings);
+            } else {
+                items = layoutItemsInGrid(entry, entryWidth, settings);
+
+                // "+X" indicator if there are more items than we can show
+                if (entry.getItems().size() > settings.maxIconsPerEntry) {
+                    int iconsPerRow = Math.min(settings.iconsPerRow, 8);
+                    int shown = Math.min(entry.getItems().size(), settings.maxIconsPerEntry);
+                    int lastRow = (int) Math.ceil((double) shown / iconsPerRow) - 1;
+                    int lastCol = shown % iconsPerRow;
+                    if (lastCol == 0) lastCol = iconsPerRow;
+
+                    int x = PADDING + (lastCol) * (ITEM_SIZE + ITEM_GAP);
+                    int y = HEADER_HEIGHT + PADDING + lastRow * (ITEM_SIZE + ITEM_GAP);
+
+                    // Check if indicator is within bounds
+                    if (x + ITEM_SIZE <= entryWidth - PADDING) {
+                        moreText = "+" + (entry.getItems().size() - settings.maxIconsPerEntry);
+                        moreX = x;
+                        moreY = y;
+                        moreTextX = x + (ITEM_SIZE - metrics.stringWidth(moreText)) / 2;
+                    }
+                }
+            }
+        }
+
+        return new EntryLayout(settings, font, entry.getItemInfo(), entryWidth, entryHeight, textXOffset, headerText,
+                valueText, valueX, items, moreText, moreX, moreY, moreTextX);
+    }
+
+    private EntryLayout.ItemSlot[] layoutItemsWithNames(FontMetrics metrics, LootHudEntry entry, int entryWidth,
+                                                        LootHudSettings settings)
+    {
+        LootItemInfo info = entry.getItemInfo();
+        int numItemsToShow = Math.min(entry.getItems().size(), settings.maxIconsPerEntry);
+        int startY = HEADER_HEIGHT + PADDING;
+        List<EntryLayout.ItemSlot> slots = new ArrayList<>(numItemsToShow);
+
+        for (int i = 0; i < numItemsToShow; i++)
+        {
+            // Items without a composition have no label, their icon is drawn without a name
+            String itemName = info.getLabel(i);
+            ItemStack item = entry.getItems().get(i);
+            int x = PADDING;
+            int y = startY + (i * (ITEM_SIZE + ITEM_GAP));
+
+            if (itemName == null)
+            {
+                slots.add(new EntryLayout.ItemSlot(item, info, i, x, y, null, 0, 0));
+            }
+            else if (settings.itemNamePosition == LootHudConfig.ItemNamePosition.LEFT)
+            {
+                // Name on left, icon on right, only if we have enough space
+                int textWidth = metrics.stringWidth(itemName);
+                if (textWidth + ITEM_SIZE + PADDING <= entryWidth) {
+                    slots.add(new EntryLayout.ItemSlot(item, info, i, x + textWidth + ITEM_NAME_PADDING, y,
+                            itemName, x, y + ITEM_SIZE / 2 + 6));
+                }
+            }
+            else if (settings.itemNamePosition == LootHudConfig.ItemNamePosition.RIGHT)
+            {
+                // Icon on left, name on right if we have enough space for text
+                int textX = x + ITEM_SIZE + ITEM_NAME_PADDING;
+                boolean nameFits = textX + metrics.stringWidth(itemName) <= entryWidth - PADDING;
+                slots.add(new EntryLayout.ItemSlot(item, info, i, x, y,
+                        nameFits ? itemName : null, textX, y + ITEM_SIZE / 2 + 6));
+            }
+        }
+
+        return slots.toArray(EntryLayout.NO_ITEMS);
+    }
+
+    private EntryLayout.ItemSlot[] layoutItemsInGrid(LootHudEntry entry, int entryWidth, LootHudSettings settings)
+    {
+        LootItemInfo info = entry.getItemInfo();
+        int iconsPerRow = Math.min(settings.iconsPerRow, 8);
+        int numIconsToShow = Math.min(entry.getItems().size(), settings.maxIconsPerEntry);
+        List<EntryLayout.ItemSlot> slots = new ArrayList<>(numIconsToShow);
+
+        for (int iconIndex = 0; iconIndex < numIconsToShow; iconIndex++)
+        {
+            ItemStack item = entry.getItems().get(iconIndex);
+            int row = iconIndex / iconsPerRow;
+            int col = iconIndex % iconsPerRow;
+
+            int x = PADDING + col * (ITEM_SIZE + ITEM_GAP);
+            int y = HEADER_HEIGHT + PADDING + row * (ITEM_SIZE + ITEM_GAP);
+
+            // Check if this position is within the entry bounds
+            if (x + ITEM_SIZE <= entryWidth - PADDING) {
+                slots.add(new EntryLayout.ItemSlot(item, info, iconIndex, x, y, null, 0, 0));
+            }
+        }
+
+        return slots.toArray(EntryLayout.NO_ITEMS);
+    }
+
+    private int calculateEntryWidth(FontMetrics metrics, LootHudEntry entry, LootHudSettings settings)
+    {
+        if (settings.showItemNames && !entry.getItems().isEmpty()) {
+            LootItemInfo info = entry.getItemInfo();
             int maxItemWidth = 0;
-            int numItemsToShow = Math.min(entry.getItems().size(), config.maxIconsPerEntry());
+            int numItemsToShow = Math.min(entry.getItems().size(), settings.maxIconsPerEntry);
 
             for (int i = 0; i < numItemsToShow; i++) {
-                ItemStack item = entry.getItems().get(i);
                 int itemWidth = ITEM_SIZE;
 
-                if (config.showItemNames()) {
-                    try {
-                        ItemComposition comp = itemManager.getItemComposition(item.getId());
-                        String itemName = formatItemName(comp.getName(), item.getQuantity());
-                        int textWidth = graphics.getFontMetrics().stringWidth(itemName);
-
-                        if (config.itemNamePosition() == LootHudConfig.ItemNamePosition.LEFT ||
-                                config.itemNamePosition() == LootHudConfig.ItemNamePosition.RIGHT) {
-                            itemWidth += textWidth + ITEM_NAME_PADDING;
-                        }
-                    } catch (Exception e) {
-                        // Ignore
+                String itemName = info.getLabel(i);
+                if (itemName != null) {
+                    int textWidth = metrics.stringWidth(itemName);
+
+                    if (settings.itemNamePosition == LootHudConfig.ItemNamePosition.LEFT ||
+                            settings.itemNamePosition == LootHudConfig.ItemNamePosition.RIGHT) {
+                        itemWidth += textWidth + ITEM_NAME_PADDING;
                     }
                 }
 
@@ -179,37 +507,29 @@ class LootHudOverlay extends Overlay
             return maxItemWidth + (PADDING * 2);
         } else {
             // Grid mode: calculate width based on icons per row
-            int iconsPerRow = Math.min(config.iconsPerRow(), 8);
-            int numIconsToShow = Math.min(entry.getItems().size(), config.maxIconsPerEntry());
+            int iconsPerRow = Math.min(settings.iconsPerRow, 8);
+            int numIconsToShow = Math.min(entry.getItems().size(), settings.maxIconsPerEntry);
 
             // Use full row width even if we have fewer items in the last row
             return (iconsPerRow * (ITEM_SIZE + ITEM_GAP)) - ITEM_GAP + (PADDING * 2);
         }
     }
 
-    private int calculateEntryHeight(LootHudEntry entry)
+    private int calculateEntryHeight(LootHudEntry entry, LootHudSettings settings)
     {
-        if (config.showItemNames() && !entry.getItems().isEmpty()) {
+        if (settings.showItemNames && !entry.getItems().isEmpty()) {
             // Items in a vertical list
-            int numItemsToShow = Math.min(entry.getItems().size(), config.maxIconsPerEntry());
+            int numItemsToShow = Math.min(entry.getItems().size(), settings.maxIconsPerEntry);
             return HEADER_HEIGHT + (numItemsToShow * (ITEM_SIZE + ITEM_GAP)) - ITEM_GAP + (PADDING * 2);
         } else {
             // Grid mode: calculate height based on rows needed
-            int iconsPerRow = Math.min(config.iconsPerRow(), 8);
-            int numIconsToShow = Math.min(entry.getItems().size(), config.maxIconsPerEntry());
+            int iconsPerRow = Math.min(settings.iconsPerRow, 8);
+            int numIconsToShow = Math.min(entry.getItems().size(), settings.maxIconsPerEntry);
             int rows = (int) Math.ceil((double) numIconsToShow / iconsPerRow);
             return HEADER_HEIGHT + (rows * (ITEM_SIZE + ITEM_GAP)) - ITEM_GAP + (PADDING * 2);
         }
     }
 
-    private String formatItemName(String name, int quantity)
-    {
-        if (quantity > 1) {
-            return name + " (" + quantity + ")";
-        }
-        return name;
-    }
-
     private float calculateAlphaForPosition(int position, int totalEntries)
     {
         float minAlpha = 0.4f;
@@ -223,61 +543,144 @@ class LootHudOverlay extends Overlay
         return maxAlpha - t * (maxAlpha - minAlpha);
     }
 
-    private int drawEntry(Graphics2D graphics, LootHudEntry entry, int yOffset, int entryWidth, int position)
+    private AlphaComposite getAlphaComposite(float alpha)
+    {
+        // Fading entries would otherwise need a new composite every frame. Blended colours
+        // end up at most one level off
+        int level = Math.round(alpha * ALPHA_LEVELS);
+        AlphaComposite composite = alphaComposites[level];
+        if (composite == null)
+        {
+            composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) level / ALPHA_LEVELS);
+            alphaComposites[level] = composite;
+        }
+        return composite;
+    }
+
+    private int drawEntry(Graphics2D graphics, LootHudEntry entry, EntryLayout layout, int yOffset, int position,
+                          LootHudSettings settings)
+    {
+        LootHudConfig.RareItemHighlight highlight = getHighlight(entry, settings);
+
+        // Rainbow and pulse backgrounds change every frame, the rest of the entry comes from its sprite
+        if (isAnimated(highlight)) {
+            drawBackground(graphics, entry, layout, yOffset, position, settings);
+        }
+
+        BufferedImage sprite = spriteCache.get(entry, layout);
+        if (sprite == null) {
+            sprite = renderSprite(graphics, entry, layout, highlight, settings);
+        }
+
+        if (sprite != null) {
+            graphics.drawImage(sprite, 0, yOffset, null);
+        } else {
+            // Over the sprite budget, draw the entry directly
+            drawStaticLayer(graphics, entry, layout, yOffset, highlight, settings);
+        }
+
+        if (highlight == LootHudConfig.RareItemHighlight.PULSE) {
+            drawHeaderText(graphics, layout, yOffset, highlight, settings);
+        }
+
+        return layout.height + 2;
+    }
+
+    private BufferedImage renderSprite(Graphics2D graphics, LootHudEntry entry, EntryLayout layout,
+                                       LootHudConfig.RareItemHighlight highlight, LootHudSettings settings)
+    {
+        BufferedImage sprite = spriteCache.allocate(entry, layout);
+        if (sprite == null) {
+            return null;
+        }
+
+        Graphics2D spriteGraphics = sprite.createGraphics();
+        try
+        {
+            spriteGraphics.setRenderingHints(graphics.getRenderingHints());
+            spriteGraphics.setFont(graphics.getFont());
+            drawStaticLayer(spriteGraphics, entry, layout, 0, highlight, settings);
+        }
+        finally
+        {
+            spriteGraphics.dispose();
+            spriteCache.finish();
+        }
+        return sprite;
+    }
+
+    /**
+     * Draws everything of an entry that doesn't change from frame to frame.
+     */
+    private void drawStaticLayer(Graphics2D graphics, LootHudEntry entry, EntryLayout layout, int yOffset,
+                                 LootHudConfig.RareItemHighlight highlight, LootHudSettings settings)
+    {
+        // The lowest quality tier draws nothing but the items
+        if (settings.iconsOnly) {
+            drawItems(graphics, layout, yOffset, settings);
+            return;
+        }
+
+        if (!isAnimated(highlight)) {
+            drawBackground(graphics, entry, layout, yOffset, 0, settings);
+        }
+
+        // Draw loot type icon if enabled
+        if (settings.showLootTypeIcon) {
+            Color typeColor = getColorForLootType(entry.getType());
+            fill.fill(graphics, typeColor, PADDING, yOffset + PADDING, TYPE_ICON_SIZE, TYPE_ICON_SIZE);
+        }
+
+        // Pulsing header text is drawn every frame
+        if (highlight != LootHudConfig.RareItemHighlight.PULSE) {
+            drawHeaderText(graphics, layout, yOffset, highlight, settings);
+        }
+
+        // Draw item icons and names
+        drawItems(graphics, layout, yOffset, settings);
+    }
+
+    private void drawBackground(Graphics2D graphics, LootHudEntry entry, EntryLayout layout, int yOffset, int position,
+                                LootHudSettings settings)
     {
-        int entryHeight = calculateEntryHeight(entry);
+        int entryWidth = layout.width;
+        int entryHeight = layout.height;
 
         // Get border width
-        int borderWidth = Math.max(0, Math.min(10, config.borderWidth()));
+        int borderWidth = Math.max(0, Math.min(10, settings.borderWidth));
 
         // Determine base colors
-        Color backgroundColor = config.backgroundColor();
-        Color headerBackgroundColor = config.headerBackgroundColor();
-        Color gradientEndColor = config.gradientEndColor();
+        Color backgroundColor = settings.backgroundColor;
+        Color headerBackgroundColor = settings.headerBackgroundColor;
+        Color gradientEndColor = settings.gradientEndColor;
 
         // Check if we have a special color for this entry (value thresholds or rare highlight)
         Color specialColor = null;
         Color specialHeaderColor = null;
 
         // First check for rare highlight
-        boolean isRare = entry.isRare();
-        LootHudConfig.RareItemHighlight highlightMode = config.rareItemHighlight();
-        boolean shouldHighlight = isRare &&
-                highlightMode != LootHudConfig.RareItemHighlight.OFF &&
-                !entry.isGrouped();
+        LootHudConfig.RareItemHighlight highlightMode = getHighlight(entry, settings);
+        boolean shouldHighlight = highlightMode != LootHudConfig.RareItemHighlight.OFF;
 
         if (shouldHighlight) {
             if (highlightMode == LootHudConfig.RareItemHighlight.RAINBOW) {
                 // Create animated rainbow effect
-                Color rainbowColor = getRainbowColor(position);
-                specialColor = new Color(
-                        rainbowColor.getRed(),
-                        rainbowColor.getGreen(),
-                        rainbowColor.getBlue(),
-                        config.rainbowAlpha()
-                );
+                specialColor = animation.getRainbowColor(position);
                 specialHeaderColor = specialColor;
             } else if (highlightMode == LootHudConfig.RareItemHighlight.STATIC) {
                 // Use static highlight color (with alpha already included)
-                specialColor = config.staticHighlightColor();
+                specialColor = settings.staticHighlightColor;
                 specialHeaderColor = specialColor;
             } else if (highlightMode == LootHudConfig.RareItemHighlight.PULSE) {
                 // New pulse effect
-                Color highlightColor = config.staticHighlightColor();
-                int pulseAlpha = getPulseAlpha(highlightColor.getAlpha(), config.pulseAlphaRange(), position);
-                specialColor = new Color(
-                        highlightColor.getRed(),
-                        highlightColor.getGreen(),
-                        highlightColor.getBlue(),
-                        pulseAlpha
-                );
+                specialColor = animation.getPulseHighlightColor();
                 specialHeaderColor = specialColor;
             }
         }
         // If not a rare highlight, check for value threshold
-        else if (config.valueBasedOverlay()) {
-            specialColor = plugin.getOverlayValueColor(entry.getTotalValue());
-            specialHeaderColor = plugin.getHeaderValueColor(entry.getTotalValue());
+        else if (settings.valueBasedOverlay) {
+            specialColor = settings.getOverlayValueColor(entry.getTotalValue());
+            specialHeaderColor = settings.getHeaderValueColor(entry.getTotalValue());
 
             // If the special color is the same as background, don't treat it as special
             // This happens for values below threshold1
@@ -289,11 +692,10 @@ class LootHudOverlay extends Overlay
 
         // Draw header background (always solid)
         Color headerColor = specialHeaderColor != null ? specialHeaderColor : headerBackgroundColor;
-        graphics.setColor(headerColor);
-        graphics.fillRect(0, yOffset, entryWidth, HEADER_HEIGHT);
+        fill.fill(graphics, headerColor, 0, yOffset, entryWidth, HEADER_HEIGHT);
 
         // Draw main background with gradient or solid
-        if (config.useGradient()) {
+        if (settings.useGradient) {
             // Always use gradient from normal background at TOP to special/gradient color at BOTTOM
             Color topColor = backgroundColor;
             Color bottomColor;
@@ -306,12 +708,9 @@ class LootHudOverlay extends Overlay
                 bottomColor = gradientEndColor;
             }
 
-            GradientPaint gradient = new GradientPaint(
-                    0, yOffset + HEADER_HEIGHT, topColor,      // Start at top with normal background
-                    0, yOffset + entryHeight, bottomColor      // End at bottom with special/gradient color
-            );
-            graphics.setPaint(gradient);
-            graphics.fillRect(0, yOffset + HEADER_HEIGHT, entryWidth, entryHeight - HEADER_HEIGHT);
+            // Start at top with normal background, end at bottom with special/gradient color
+            fill.fillVerticalGradient(graphics, topColor, bottomColor,
+                    0, yOffset + HEADER_HEIGHT, entryWidth, entryHeight - HEADER_HEIGHT);
         } else {
             // Solid color mode
             Color bodyColor;
@@ -322,292 +721,128 @@ class LootHudOverlay extends Overlay
                 // Use normal background color for normal drops
                 bodyColor = backgroundColor;
             }
-            graphics.setColor(bodyColor);
-            graphics.fillRect(0, yOffset + HEADER_HEIGHT, entryWidth, entryHeight - HEADER_HEIGHT);
+            fill.fill(graphics, bodyColor, 0, yOffset + HEADER_HEIGHT, entryWidth, entryHeight - HEADER_HEIGHT);
         }
 
         // Draw border with configurable width
         if (borderWidth > 0) {
-            Color borderColor = config.borderColor();
+            Color borderColor = settings.borderColor;
             if (shouldHighlight && highlightMode != LootHudConfig.RareItemHighlight.OFF) {
                 if (highlightMode == LootHudConfig.RareItemHighlight.RAINBOW) {
-                    Color rainbowBorder = getRainbowColor(position + 2);
-                    borderColor = new Color(
-                            rainbowBorder.getRed(),
-                            rainbowBorder.getGreen(),
-                            rainbowBorder.getBlue(),
-                            config.rainbowAlpha()
-                    );
+                    borderColor = animation.getRainbowColor(position + 2);
                 } else if (highlightMode == LootHudConfig.RareItemHighlight.PULSE) {
-                    int pulseAlpha = getPulseAlpha(config.staticHighlightColor().getAlpha(),
-                            config.pulseAlphaRange(), position);
-                    borderColor = new Color(
-                            config.staticHighlightColor().getRed(),
-                            config.staticHighlightColor().getGreen(),
-                            config.staticHighlightColor().getBlue(),
-                            pulseAlpha
-                    );
+                    borderColor = animation.getPulseHighlightColor();
                 }
             }
 
-            graphics.setColor(borderColor);
-            graphics.setStroke(new BasicStroke(borderWidth));
-            graphics.drawRect(
-                    borderWidth / 2,
-                    yOffset + borderWidth / 2,
-                    entryWidth - borderWidth,
-                    entryHeight - borderWidth
-            );
-            graphics.setStroke(new BasicStroke(1));
+            fill.drawBorder(graphics, borderColor, 0, yOffset, entryWidth, entryHeight, borderWidth);
         }
+    }
 
-        // Draw loot type icon if enabled
-        int textXOffset = PADDING;
-        if (config.showLootTypeIcon()) {
-            Color typeColor = getColorForLootType(entry.getType());
-            graphics.setColor(typeColor);
-            graphics.fillRect(PADDING, yOffset + PADDING, TYPE_ICON_SIZE, TYPE_ICON_SIZE);
-            textXOffset += TYPE_ICON_SIZE + 4;
-        }
+    private void drawHeaderText(Graphics2D graphics, EntryLayout layout, int yOffset,
+                                LootHudConfig.RareItemHighlight highlightMode, LootHudSettings settings)
+    {
+        boolean shouldHighlight = highlightMode != LootHudConfig.RareItemHighlight.OFF;
 
         // Draw header text (monster name + value)
         int textY = yOffset + PADDING + 14;
 
-        // Format kill count text
-        String killText = "";
-        if (entry.isGrouped()) {
-            killText = " (x" + entry.getKillCount() + ")";
-        } else if (config.groupLoot() && entry.getKillCount() > config.groupKillThreshold()) {
-            killText = " (x" + entry.getKillCount() + ")";
-        } else if (!config.groupLoot() && entry.getKillCount() > 1) {
-            killText = " (x" + entry.getKillCount() + ")";
-        }
-
-        String displayName = entry.getSourceName();
-
-        // Truncate if too long
-        int availableWidth = entryWidth - (PADDING * 2) - textXOffset;
-        if (config.showTotalValue()) {
-            // Reserve space for value text
-            availableWidth -= 80; // Approximate width for value text
-        }
-
-        if (graphics.getFontMetrics().stringWidth(displayName + killText) > availableWidth) {
-            // Truncate with ellipsis
-            while (displayName.length() > 3 &&
-                    graphics.getFontMetrics().stringWidth(displayName + "..." + killText) > availableWidth) {
-                displayName = displayName.substring(0, displayName.length() - 1);
-            }
-            displayName = displayName + "...";
-        }
-
-        Color textColor = shouldHighlight ? Color.WHITE : config.sourceNameColor();
+        Color textColor = shouldHighlight ? Color.WHITE : settings.sourceNameColor;
 
         // If pulse mode, also pulse the text color slightly
         if (shouldHighlight && highlightMode == LootHudConfig.RareItemHighlight.PULSE) {
-            int pulseAlpha = getPulseAlpha(255, config.pulseAlphaRange() / 2, position);
-            textColor = new Color(textColor.getRed(), textColor.getGreen(), textColor.getBlue(), pulseAlpha);
+            textColor = animation.getPulseTextColor();
         }
 
-        OverlayUtil.renderTextLocation(graphics,
-                new Point(textXOffset, textY),
-                displayName + killText,
-                textColor);
+        drawText(graphics, layout.headerText, layout.textX, textY, textColor);
 
         // Draw value on right if enabled
-        if (config.showTotalValue() && entry.getTotalValue() > 0) {
-            String valueText = QuantityFormatter.quantityToStackSize(entry.getTotalValue()) + " gp";
-            int textWidth = graphics.getFontMetrics().stringWidth(valueText);
-
-            Color valueColor = shouldHighlight ? Color.WHITE : config.valueTextColor();
+        if (layout.valueText != null) {
+            Color valueColor = shouldHighlight ? Color.WHITE : settings.valueTextColor;
 
             if (shouldHighlight && highlightMode == LootHudConfig.RareItemHighlight.PULSE) {
-                int pulseAlpha = getPulseAlpha(255, config.pulseAlphaRange() / 2, position);
-                valueColor = new Color(valueColor.getRed(), valueColor.getGreen(), valueColor.getBlue(), pulseAlpha);
+                valueColor = animation.getPulseTextColor();
             }
 
-            OverlayUtil.renderTextLocation(graphics,
-                    new Point(entryWidth - PADDING - textWidth, textY),
-                    valueText,
-                    valueColor);
+            drawText(graphics, layout.valueText, layout.valueX, textY, valueColor);
         }
+    }
 
-        // Draw item icons and names
-        if (config.showItemIcons() && !entry.getItems().isEmpty()) {
-            if (config.showItemNames()) {
-                drawItemsWithNames(graphics, entry, yOffset, entryWidth);
-            } else {
-                drawItemsInGrid(graphics, entry, yOffset, entryWidth);
-            }
+    /**
+     * @return how the entry is highlighted, OFF if it isn't
+     */
+    private LootHudConfig.RareItemHighlight getHighlight(LootHudEntry entry, LootHudSettings settings)
+    {
+        if (!entry.isRare() || entry.isGrouped()) {
+            return LootHudConfig.RareItemHighlight.OFF;
         }
-
-        return entryHeight + 2;
+        return settings.rareItemHighlight;
     }
 
-    private void drawItemsWithNames(Graphics2D graphics, LootHudEntry entry, int yOffset, int entryWidth)
+    private static boolean isAnimated(LootHudConfig.RareItemHighlight highlight)
     {
-        int numItemsToShow = Math.min(entry.getItems().size(), config.maxIconsPerEntry());
-        int startY = yOffset + HEADER_HEIGHT + PADDING;
+        return highlight == LootHudConfig.RareItemHighlight.RAINBOW || highlight == LootHudConfig.RareItemHighlight.PULSE;
+    }
 
-        for (int i = 0; i < numItemsToShow; i++)
+    private void drawItems(Graphics2D graphics, EntryLayout layout, int yOffset, LootHudSettings settings)
+    {
+        for (EntryLayout.ItemSlot slot : layout.items)
         {
-            ItemStack item = entry.getItems().get(i);
-            int x = PADDING;
-            int y = startY + (i * (ITEM_SIZE + ITEM_GAP));
-
-            try
+            ItemStack item = slot.item;
+            BufferedImage itemImage = slot.image;
+            if (itemImage == null)
             {
-                ItemComposition comp = itemManager.getItemComposition(item.getId());
-                String itemName = formatItemName(comp.getName(), item.getQuantity());
-                int itemValue = itemManager.getItemPrice(item.getId()) * item.getQuantity();
-
-                // Determine item color based on value thresholds
-                Color itemColor = plugin.getItemValueColor(itemValue);
-
-                // Check if this item is rare
-                boolean isItemRare = false;
-                String itemNameLower = comp.getName().toLowerCase().trim();
-                for (String rarePattern : plugin.getRareItemNamesCache()) {
-                    if (WildcardMatcher.matches(rarePattern, itemNameLower)) {
-                        isItemRare = true;
-                        break;
-                    }
-                }
-
-                // Use highlighted color if item is rare
-                if (isItemRare) {
-                    itemColor = config.highlightedItemNameColor();
+                itemImage = itemImages.get(item.getId(), item.getQuantity(), slot.showQuantity);
+                if (itemImage == null)
+                {
+                    continue;
                 }
 
-                // Draw icon
-                BufferedImage itemImage = getItemImage(item);
-                if (itemImage != null)
+                if (itemImages.isLoaded(item.getId(), item.getQuantity(), slot.showQuantity))
                 {
-                    if (config.itemNamePosition() == LootHudConfig.ItemNamePosition.LEFT)
-                    {
-                        // Draw name on left, icon on right
-                        int textWidth = graphics.getFontMetrics().stringWidth(itemName);
-                        // Check if we have enough space
-                        if (textWidth + ITEM_SIZE + PADDING <= entryWidth) {
-                            OverlayUtil.renderTextLocation(graphics,
-                                    new Point(x, y + ITEM_SIZE / 2 + 6),
-                                    itemName,
-                                    itemColor);
-                            graphics.drawImage(itemImage, x + textWidth + ITEM_NAME_PADDING, y, null);
-                        }
-                    }
-                    else if (config.itemNamePosition() == LootHudConfig.ItemNamePosition.RIGHT)
-                    {
-                        // Draw icon on left, name on right
-                        graphics.drawImage(itemImage, x, y, null);
-                        // Check if we have enough space for text
-                        int textX = x + ITEM_SIZE + ITEM_NAME_PADDING;
-                        if (textX + graphics.getFontMetrics().stringWidth(itemName) <= entryWidth - PADDING) {
-                            OverlayUtil.renderTextLocation(graphics,
-                                    new Point(textX, y + ITEM_SIZE / 2 + 6),
-                                    itemName,
-                                    itemColor);
-                        }
-                    }
+                    slot.image = itemImage;
                 }
-            }
-            catch (Exception e)
-            {
-                // Ignore errors and just draw the icon
-                BufferedImage itemImage = getItemImage(item);
-                if (itemImage != null)
+                else
                 {
-                    graphics.drawImage(itemImage, x, y, null);
+                    // Redraw the sprite once the icon has loaded
+                    spriteCache.watch(itemImage);
+                    drewLoadingImage = true;
                 }
             }
-        }
-    }
-
-    private void drawItemsInGrid(Graphics2D graphics, LootHudEntry entry, int yOffset, int entryWidth)
-    {
-        int iconsPerRow = Math.min(config.iconsPerRow(), 8);
-        int numIconsToShow = Math.min(entry.getItems().size(), config.maxIconsPerEntry());
-        int rows = (int) Math.ceil((double) numIconsToShow / iconsPerRow);
-
-        int iconIndex = 0;
-
-        for (ItemStack item : entry.getItems())
-        {
-            if (iconIndex >= config.maxIconsPerEntry()) {
-                break;
-            }
 
-            int row = iconIndex / iconsPerRow;
-            int col = iconIndex % iconsPerRow;
-
-            int x = PADDING + col * (ITEM_SIZE + ITEM_GAP);
-            int y = yOffset + HEADER_HEIGHT + PADDING + row * (ITEM_SIZE + ITEM_GAP);
+            if (slot.name != null)
+            {
+                // Determine item color based on value thresholds, or highlighted if the item is rare
+                Color itemColor = slot.rare ? settings.highlightedItemNameColor : settings.getItemTierColor(slot.valueTier);
 
-            // Check if this position is within the entry bounds
-            if (x + ITEM_SIZE <= entryWidth - PADDING) {
-                BufferedImage itemImage = getItemImage(item);
-                if (itemImage != null) {
-                    graphics.drawImage(itemImage, x, y, null);
-                }
+                drawText(graphics, slot.name, slot.textX, yOffset + slot.textY, itemColor);
             }
 
-            iconIndex++;
+            graphics.drawImage(itemImage, slot.iconX, yOffset + slot.iconY, null);
         }
 
         // Draw "+X" indicator if there are more items than we can show
-        if (entry.getItems().size() > config.maxIconsPerEntry()) {
-            int remaining = entry.getItems().size() - config.maxIconsPerEntry();
-            int lastRow = (int) Math.ceil((double) Math.min(entry.getItems().size(), config.maxIconsPerEntry()) / iconsPerRow) - 1;
-            int lastCol = Math.min(entry.getItems().size(), config.maxIconsPerEntry()) % iconsPerRow;
-            if (lastCol == 0) lastCol = iconsPerRow;
-
-            int x = PADDING + (lastCol) * (ITEM_SIZE + ITEM_GAP);
-            int y = yOffset + HEADER_HEIGHT + PADDING + lastRow * (ITEM_SIZE + ITEM_GAP);
-
-            // Check if indicator is within bounds
-            if (x + ITEM_SIZE <= entryWidth - PADDING) {
-                graphics.setColor(new Color(60, 60, 60, 200));
-                graphics.fillRect(x, y, ITEM_SIZE, ITEM_SIZE);
-
-                graphics.setColor(Color.LIGHT_GRAY);
-                String plusText = "+" + remaining;
-                int textWidth = graphics.getFontMetrics().stringWidth(plusText);
-                OverlayUtil.renderTextLocation(graphics,
-                        new Point(x + (ITEM_SIZE - textWidth) / 2, y + 18),
-                        plusText,
-                        Color.LIGHT_GRAY);
-            }
+        if (layout.moreText != null) {
+            int y = yOffset + layout.moreY;
+            fill.fill(graphics, MORE_ITEMS_BACKGROUND, layout.moreX, y, ITEM_SIZE, ITEM_SIZE);
+            drawText(graphics, layout.moreText, layout.moreTextX, y + 18, Color.LIGHT_GRAY);
         }
     }
 
-    private Color getRainbowColor(int positionOffset)
+    /**
+     * Draws text with a shadow like {@code OverlayUtil.renderTextLocation}, without a {@code Point} per call.
+     */
+    private static void drawText(Graphics2D graphics, String text, int x, int y, Color color)
     {
-        long currentTime = System.currentTimeMillis();
-        long elapsedTime = currentTime - animationStartTime;
-
-        float speed = config.rainbowAnimationSpeed() / 10.0f;
-        float hue = ((elapsedTime * 0.001f * speed) + (positionOffset * 0.2f)) % 1.0f;
-
-        float saturation = 0.8f;
-        float brightness = 0.9f;
-
-        int rgb = Color.HSBtoRGB(hue, saturation, brightness);
-        return new Color(rgb);
-    }
-
-    private int getPulseAlpha(int baseAlpha, int alphaRange, int positionOffset)
-    {
-        long currentTime = System.currentTimeMillis();
-        long elapsedTime = currentTime - animationStartTime;
-
-        float speedFactor = config.pulseAnimationSpeed() / 10.0f;
-        long pulsePeriod = (long) (2000 / speedFactor);
-
-        float cyclePosition = (elapsedTime % pulsePeriod) / (float) pulsePeriod;
-        float sinePulse = (float) Math.sin(cyclePosition * Math.PI * 2);
+        if (text == null || text.isEmpty())
+        {
+            return;
+        }
 
-        int pulseAlpha = (int) (baseAlpha + (sinePulse * alphaRange / 2));
-        return Math.max(0, Math.min(255, pulseAlpha));
+        graphics.setColor(Color.BLACK);
+        graphics.drawString(text, x + 1, y + 1);
+        graphics.setColor(color);
+        graphics.drawString(text, x, y);
     }
 
     private Color getColorForLootType(LootRecordType type)
@@ -615,29 +850,15 @@ class LootHudOverlay extends Overlay
         switch (type)
         {
             case NPC:
-                return new Color(255, 100, 100, 200);
+                return NPC_COLOR;
             case PLAYER:
-                return new Color(100, 100, 255, 200);
+                return PLAYER_COLOR;
             case PICKPOCKET:
-                return new Color(255, 200, 100, 200);
+                return PICKPOCKET_COLOR;
             case EVENT:
-                return new Color(100, 255, 100, 200);
+                return EVENT_COLOR;
             default:
-                return new Color(200, 200, 200, 200);
-        }
-    }
-
-    private BufferedImage getItemImage(ItemStack item)
-    {
-        try
-        {
-            ItemComposition itemComposition = itemManager.getItemComposition(item.getId());
-            boolean showQuantity = itemComposition.isStackable() || item.getQuantity() > 1;
-            return itemManager.getImage(item.getId(), item.getQuantity(), showQuantity);
-        }
-        catch (Exception e)
-        {
-            return null;
+                return OTHER_COLOR;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,34 @@
 package com.LootHUD;
 
 import com.google.inject.Provides;
-import java.time.Instant;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ItemComposition;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.eventbus.Subscribe;
@@ -51,16 +67,61 @@ public class LootHudPlugin extends Plugin
 	@Inject
 	private EventBus eventBus;
 
-	private final List<LootHudEntry> allEntries = new CopyOnWriteArrayList<>();
+	@Inject
+	private ClientThread clientThread;
+
+	@Inject
+	private ItemCatalogueIndex itemCatalogue;
+
+	@Inject
+	private LootHudClock clock;
+
+	@Inject
+	private LootHudStats stats;
+
+	@Inject
+	private ScheduledExecutorService executor;
+
+	// All loot state below is only touched on the client thread, readers get recentLoot
+	private final List<LootHudEntry> allEntries = new ArrayList<>();
 	private final Map<String, RunningTotal> runningTotals = new HashMap<>();
 	private final Map<String, List<IndividualKill>> individualKills = new HashMap<>();
-	private final Set<String> rareItemNamesCache = new HashSet<>();
-	private final Set<String> ignoredItemNamesCache = new HashSet<>();
-	private final Set<String> ignoredSourcesCache = new HashSet<>();
-
-	private boolean overlayVisible = true;
-	private String lastProcessedEventHash = "";
-	private long lastProcessedEventTime = 0;
+	// Every stored kill across all sources, newest first
+	private final TreeSet<IndividualKill> killIndex = new TreeSet<>(IndividualKill.NEWEST_FIRST);
+	private final ExpirationQueue<LootHudEntry> entryExpirations = new ExpirationQueue<>();
+	private final ExpirationQueue<IndividualKill> killExpirations = new ExpirationQueue<>();
+	private final ExpirationQueue<RunningTotal> totalExpirations = new ExpirationQueue<>();
+	// Loot received since the last game tick, applied as one batch
+	private final List<PendingLoot> pendingLoot = new ArrayList<>();
+	private WildcardPatternSet rareItemMatcher = WildcardPatternSet.EMPTY;
+	private WildcardPatternSet ignoredItemMatcher = WildcardPatternSet.EMPTY;
+	private WildcardPatternSet ignoredSourcesMatcher = WildcardPatternSet.EMPTY;
+	private final ItemClassificationCache itemClassifications = new ItemClassificationCache();
+
+	private volatile RecentLoot recentLoot = RecentLoot.EMPTY;
+	// Replaced as a whole whenever the config changes, never modified
+	private volatile LootHudSettings settings;
+
+	// About a minute
+	private static final int STATS_LOG_INTERVAL_TICKS = 100;
+
+	private static final File JOURNAL_DIR = new File(RuneLite.RUNELITE_DIR, "loot-hud");
+	private static final DateTimeFormatter JOURNAL_NAME_FORMAT = DateTimeFormatter.ofPattern("'journal-'yyyyMMdd-HHmmss'.lhj'");
+
+	private static final int DEDUP_CAPACITY = 32;
+	private static final long DEDUP_WINDOW_MILLIS = 1000;
+
+	private volatile boolean overlayVisible = true;
+	// Bumped after the published entries, the settings or the visibility change, from any thread
+	private final AtomicLong changeGeneration = new AtomicLong();
+	private long killSequence = 0;
+	private int ticksSinceStatsLogged = 0;
+	private long gameTicks = 0;
+	// Whether the loot journal setting is on
+	private boolean recordingJournal;
+	// Open while recording, only used on the executor so writes never block the client thread
+	private LootJournal journal;
+	private final LootFingerprintWindow recentEvents = new LootFingerprintWindow(DEDUP_CAPACITY, DEDUP_WINDOW_MILLIS);
 
 	@Provides
 	LootHudConfig provideConfig(ConfigManager configManager)
@@ -72,12 +133,19 @@ public class LootHudPlugin extends Plugin
 	protected void startUp()
 	{
 		log.info("Loot HUD started!");
+		settings = LootHudSettings.from(config);
 		overlayManager.add(overlay);
 		keyManager.registerKeyListener(hotkeyListener);
 		eventBus.register(this);
-		updateRareItemNamesCache();
-		updateIgnoredItemNamesCache();
-		updateIgnoredSourcesCache();
+		clientThread.invoke(() -> {
+			updateRareItemNamesCache();
+			updateIgnoredItemNamesCache();
+			updateIgnoredSourcesCache();
+			itemCatalogue.rebuild(rareItemMatcher, ignoredItemMatcher);
+			if (settings.recordLootJournal) {
+				startJournal();
+			}
+		});
 	}
 
 	@Override
@@ -87,12 +155,31 @@ public class LootHudPlugin extends Plugin
 		overlayManager.remove(overlay);
 		keyManager.unregisterKeyListener(hotkeyListener);
 		eventBus.unregister(this);
-		allEntries.clear();
-		runningTotals.clear();
-		individualKills.clear();
-		rareItemNamesCache.clear();
-		ignoredItemNamesCache.clear();
-		ignoredSourcesCache.clear();
+		recentLoot = RecentLoot.EMPTY;
+		changeGeneration.incrementAndGet();
+		itemCatalogue.clear();
+		clientThread.invoke(() -> {
+			if (settings.showDebugStats) {
+				log.info("Loot HUD stats:\n{}", stats.summary());
+			}
+			stats.reset();
+			stopJournal();
+			pendingLoot.clear();
+			recentEvents.clear();
+			allEntries.clear();
+			runningTotals.clear();
+			individualKills.clear();
+			killIndex.clear();
+			entryExpirations.clear();
+			killExpirations.clear();
+			totalExpirations.clear();
+			rareItemMatcher = WildcardPatternSet.EMPTY;
+			ignoredItemMatcher = WildcardPatternSet.EMPTY;
+			ignoredSourcesMatcher = WildcardPatternSet.EMPTY;
+			itemClassifications.clear();
+			recentLoot = RecentLoot.EMPTY;
+			overlay.clearCaches();
+		});
 	}
 
 	private final HotkeyListener hotkeyListener = new HotkeyListener(() -> config.toggleKeybind())
@@ -101,75 +188,99 @@ public class LootHudPlugin extends Plugin
 		public void hotkeyPressed()
 		{
 			overlayVisible = !overlayVisible;
+			changeGeneration.incrementAndGet();
 		}
 	};
 
 	@Subscribe
 	public void onLootReceived(LootReceived event)
 	{
-		log.info("Loot received from: {} (Type: {}, Amount: {}) - Items: {}",
-				event.getName(), event.getType(), event.getAmount(), event.getItems());
+		if (recordingJournal) {
+			recordLoot(event);
+		}
 
-		if (!shouldShowLoot(event.getType())) {
+		LootHudSettings settings = this.settings;
+		if (!settings.showDebugStats) {
+			queueLoot(event, settings);
 			return;
 		}
 
+		long start = System.nanoTime();
+		boolean queued = queueLoot(event, settings);
+		stats.lootTimes.record(System.nanoTime() - start);
+		stats.eventsReceived++;
+		if (!queued) {
+			stats.eventsFiltered++;
+		}
+	}
+
+	/**
+	 * Filters and prices a loot event and queues it for the next game tick.
+	 * @return false if the event was filtered out
+	 */
+	private boolean queueLoot(LootReceived event, LootHudSettings settings)
+	{
+		// Formatting the items of every event isn't free, only do it when someone is reading
+		if (log.isDebugEnabled()) {
+			log.debug("Loot received from: {} (Type: {}, Amount: {}) - Items: {}",
+					event.getName(), event.getType(), event.getAmount(), event.getItems());
+		}
+
+		if (!shouldShowLoot(settings, event.getType())) {
+			return false;
+		}
+
 		if (isSourceIgnored(event.getName())) {
 			log.debug("Skipping loot from ignored source: {}", event.getName());
-			return;
+			return false;
 		}
 
-		List<ItemStack> filteredItems = filterIgnoredItems(new ArrayList<>(event.getItems()));
+		// A copy of the event's items, sorted in place below
+		List<ItemStack> filteredItems = filterIgnoredItems(event.getItems());
 
 		if (filteredItems.isEmpty()) {
 			log.debug("All items from {} were ignored, skipping display", event.getName());
-			return;
+			return false;
 		}
 
 		long totalValue = 0;
 		boolean hasRareItem = false;
-		List<ItemStack> sortedItems = new ArrayList<>(filteredItems);
+		List<ItemStack> sortedItems = filteredItems;
+
+		// Each price is looked up once, sorting and the total both use it
+		int[] prices = new int[sortedItems.size()];
+		for (int i = 0; i < prices.length; i++) {
+			prices[i] = itemManager.getItemPrice(sortedItems.get(i).getId());
+		}
 
-		if (config.sortItemsByValue()) {
-			sortedItems.sort((a, b) -> {
-				int priceA = itemManager.getItemPrice(a.getId());
-				int priceB = itemManager.getItemPrice(b.getId());
-				return Integer.compare(priceB, priceA);
-			});
+		if (settings.sortItemsByValue) {
+			sortByPrice(sortedItems, prices);
 		}
 
-		for (ItemStack item : sortedItems)
+		for (int i = 0; i < sortedItems.size(); i++)
 		{
-			int price = itemManager.getItemPrice(item.getId());
+			ItemStack item = sortedItems.get(i);
+			int price = prices[i];
 			if (price > 0) {
 				totalValue += (long) price * item.getQuantity();
 			}
 
-			if (!hasRareItem && !rareItemNamesCache.isEmpty()) {
+			if (!hasRareItem && !rareItemMatcher.isEmpty()) {
 				try {
-					ItemComposition comp = itemManager.getItemComposition(item.getId());
-					String itemName = comp.getName().toLowerCase().trim();
-
-					for (String rarePattern : rareItemNamesCache) {
-						if (WildcardMatcher.matches(rarePattern, itemName)) {
-							hasRareItem = true;
-							log.debug("Rare item detected: {} (matches pattern: {})", comp.getName(), rarePattern);
-							break;
-						}
-					}
+					hasRareItem = isRareItem(item.getId());
 				} catch (Exception e) {
 					log.warn("Error checking item name for ID: {}", item.getId(), e);
 				}
 			}
 		}
 
-		if (config.minValueToShow() > 0 && totalValue < config.minValueToShow()) {
+		if (settings.minValueToShow > 0 && totalValue < settings.minValueToShow) {
 			log.debug("Skipping loot from {}: value {} below minimum {}",
-					event.getName(), totalValue, config.minValueToShow());
-			return;
+					event.getName(), totalValue, settings.minValueToShow);
+			return false;
 		}
 
-		boolean exceedsRareValue = config.rareValueThreshold() > 0 && totalValue >= config.rareValueThreshold();
+		boolean exceedsRareValue = settings.rareValueThreshold > 0 && totalValue >= settings.rareValueThreshold;
 		boolean isRare = hasRareItem || exceedsRareValue;
 
 		if (isRare) {
@@ -177,37 +288,48 @@ public class LootHudPlugin extends Plugin
 					event.getName(), totalValue, hasRareItem, exceedsRareValue);
 		}
 
-		Instant expirationTime;
-		if (config.alwaysShowOverlay()) {
-			expirationTime = Instant.MAX;
+		long now = clock.millis();
+		long expirationTime;
+		if (settings.alwaysShowOverlay) {
+			expirationTime = LootHudClock.NEVER;
 		} else {
-			expirationTime = Instant.now().plusSeconds(config.displayDuration());
+			expirationTime = now + settings.displayDuration * 1000L;
 		}
 
-		processLoot(event, sortedItems, totalValue, expirationTime, isRare);
+		pendingLoot.add(new PendingLoot(event, sortedItems, totalValue, now, expirationTime, isRare));
+		return true;
 	}
 
-	private List<ItemStack> filterIgnoredItems(List<ItemStack> items) {
-		if (ignoredItemNamesCache.isEmpty()) {
+	@Subscribe
+	public void onGameTick(GameTick event)
+	{
+		gameTicks++;
+		LootHudSettings settings = this.settings;
+		if (!pendingLoot.isEmpty()) {
+			if (settings.showDebugStats) {
+				long start = System.nanoTime();
+				processPendingLoot();
+				stats.batchTimes.record(System.nanoTime() - start);
+			} else {
+				processPendingLoot();
+			}
+		}
+
+		if (settings.showDebugStats && ++ticksSinceStatsLogged >= STATS_LOG_INTERVAL_TICKS) {
+			ticksSinceStatsLogged = 0;
+			log.info("Loot HUD stats:\n{}", stats.summary());
+		}
+	}
+
+	private List<ItemStack> filterIgnoredItems(Collection<ItemStack> items) {
+		if (ignoredItemMatcher.isEmpty()) {
 			return new ArrayList<>(items);
 		}
 
-		List<ItemStack> filtered = new ArrayList<>();
+		List<ItemStack> filtered = new ArrayList<>(items.size());
 		for (ItemStack item : items) {
 			try {
-				ItemComposition comp = itemManager.getItemComposition(item.getId());
-				String itemName = comp.getName().toLowerCase().trim();
-				boolean ignore = false;
-
-				for (String ignoredPattern : ignoredItemNamesCache) {
-					if (WildcardMatcher.matches(ignoredPattern, itemName)) {
-						ignore = true;
-						log.debug("Ignoring item: {} (matches pattern: {})", comp.getName(), ignoredPattern);
-						break;
-					}
-				}
-
-				if (!ignore) {
+				if ((classifyItem(item.getId()) & ItemClassificationCache.IGNORED) == 0) {
 					filtered.add(item);
 				}
 			} catch (Exception e) {
@@ -219,59 +341,109 @@ public class LootHudPlugin extends Plugin
 		return filtered;
 	}
 
-	private void processLoot(LootReceived event, List<ItemStack> sortedItems, long totalValue, Instant expirationTime, boolean isRare)
+	/**
+	 * Applies all loot received since the last game tick as one batch.
+	 * Kills and running totals are stored per event in arrival order, but grouped entries
+	 * are only rebuilt once per source and the display is trimmed, expired and published
+	 * once for the whole batch.
+	 */
+	private void processPendingLoot()
 	{
-		String eventHash = createEventHash(event, sortedItems, totalValue);
-		long currentTime = System.currentTimeMillis();
+		LootHudSettings settings = this.settings;
+		boolean grouped = settings.groupLoot;
+		boolean instrumented = settings.showDebugStats;
+		long appliedTime = clock.millis();
+		// Grouped sources to refresh, in the order they last received loot
+		Map<String, PendingLoot> touchedGroups = new LinkedHashMap<>();
+		boolean changed = false;
+
+		for (PendingLoot loot : pendingLoot) {
+			// Expire what was already gone when this loot arrived, so it doesn't extend stale kills and totals
+			expireData(loot.receivedTime);
+
+			LootReceived event = loot.event;
+			long fingerprint = LootFingerprintWindow.fingerprint(event.getName(), event.getType(), event.getAmount(),
+					loot.totalValue, loot.sortedItems);
+
+			if (recentEvents.isDuplicate(fingerprint, loot.receivedTime)) {
+				log.debug("Skipping duplicate event for {}", event.getName());
+				if (instrumented) {
+					stats.eventsDeduplicated++;
+				}
+				continue;
+			}
 
-		if (eventHash.equals(lastProcessedEventHash) && (currentTime - lastProcessedEventTime) < 1000) {
-			log.debug("Skipping duplicate event for {}", event.getName());
-			return;
-		}
+			String monsterKey = event.getName() + "|" + event.getType();
 
-		lastProcessedEventHash = eventHash;
-		lastProcessedEventTime = currentTime;
+			IndividualKill kill = storeIndividualKill(event, loot.sortedItems, loot.totalValue, loot.expirationTime, loot.isRare, monsterKey);
+			updateRunningTotal(event, loot.sortedItems, loot.totalValue, loot.expirationTime, loot.isRare, monsterKey);
+
+			if (grouped) {
+				touchedGroups.remove(monsterKey);
+				touchedGroups.put(monsterKey, loot);
+			} else {
+				updateIndividualDisplay(kill);
+			}
+			changed = true;
 
-		String monsterKey = event.getName() + "|" + event.getType();
+			if (instrumented) {
+				stats.eventsDisplayed++;
+				stats.ingestionLatency.record(TimeUnit.MILLISECONDS.toNanos(appliedTime - loot.receivedTime));
+			}
+		}
+		pendingLoot.clear();
 
-		storeIndividualKill(event, sortedItems, totalValue, expirationTime, isRare, monsterKey);
-		updateRunningTotal(event, sortedItems, totalValue, expirationTime, isRare, monsterKey);
+		if (!changed) {
+			return;
+		}
 
-		if (config.groupLoot()) {
-			updateGroupedDisplay(event, monsterKey, expirationTime);
-		} else {
-			updateIndividualDisplay(event, monsterKey, expirationTime);
+		// Each source ends up on top in the order it last received loot, as if applied one by one
+		for (Map.Entry<String, PendingLoot> touched : touchedGroups.entrySet()) {
+			PendingLoot loot = touched.getValue();
+			updateGroupedDisplay(loot.event, touched.getKey(), loot.expirationTime);
 		}
 
-		while (allEntries.size() > config.maxNotifications() * 2) {
+		while (allEntries.size() > settings.maxNotifications * 2) {
 			allEntries.remove(allEntries.size() - 1);
 		}
 
-		cleanupExpiredData();
+		long now = clock.millis();
+		expireData(now);
+		publishRecentLoot(now);
 	}
 
-	private void storeIndividualKill(LootReceived event, List<ItemStack> sortedItems, long totalValue,
-									 Instant expirationTime, boolean isRare, String monsterKey) {
+	private IndividualKill storeIndividualKill(LootReceived event, List<ItemStack> sortedItems, long totalValue,
+											   long expirationTime, boolean isRare, String monsterKey) {
 		IndividualKill kill = new IndividualKill(
+				++killSequence,
 				event.getName(),
 				event.getType(),
 				new ArrayList<>(sortedItems),
 				event.getAmount(),
 				totalValue,
 				isRare,
-				expirationTime
+				expirationTime,
+				describeItems(sortedItems)
 		);
 
 		List<IndividualKill> kills = individualKills.computeIfAbsent(monsterKey, k -> new ArrayList<>());
 		kills.add(0, kill);
-
-		while (kills.size() > config.maxNotifications() * 3) {
-			kills.remove(kills.size() - 1);
+		killIndex.add(kill);
+		killExpirations.schedule(expirationTime, kill);
+
+		while (kills.size() > settings.maxNotifications * 3) {
+			IndividualKill trimmed = kills.remove(kills.size() - 1);
+			killIndex.remove(trimmed);
+			if (removeEntry(trimmed.getEntry())) {
+				fillIndividualDisplay();
+			}
 		}
+
+		return kill;
 	}
 
 	private void updateRunningTotal(LootReceived event, List<ItemStack> sortedItems, long totalValue,
-									Instant expirationTime, boolean isRare, String monsterKey) {
+									long expirationTime, boolean isRare, String monsterKey) {
 		RunningTotal runningTotal = runningTotals.get(monsterKey);
 		if (runningTotal == null) {
 			runningTotal = new RunningTotal(
@@ -287,9 +459,11 @@ public class LootHudPlugin extends Plugin
 		} else {
 			runningTotal.addKill(sortedItems, event.getAmount(), totalValue, isRare, expirationTime);
 		}
+
+		totalExpirations.schedule(runningTotal.getExpirationTime(), runningTotal);
 	}
 
-	private void updateGroupedDisplay(LootReceived event, String monsterKey, Instant expirationTime) {
+	private void updateGroupedDisplay(LootReceived event, String monsterKey, long expirationTime) {
 		RunningTotal runningTotal = runningTotals.get(monsterKey);
 		if (runningTotal == null) {
 			log.warn("No running total found for {} when in grouped mode", monsterKey);
@@ -316,143 +490,194 @@ public class LootHudPlugin extends Plugin
 				runningTotal.getTotalValue(),
 				event.getType(),
 				runningTotal.isRare(),
-				true
+				true,
+				describeTotal(runningTotal)
 		);
 
 		allEntries.add(0, groupedEntry);
+		entryExpirations.schedule(expirationTime, groupedEntry);
 	}
 
-	private void updateIndividualDisplay(LootReceived event, String monsterKey, Instant expirationTime) {
-		List<IndividualKill> allKills = new ArrayList<>();
-
-		for (Map.Entry<String, List<IndividualKill>> entry : individualKills.entrySet()) {
-			List<IndividualKill> monsterKills = entry.getValue();
-
-			for (IndividualKill kill : monsterKills) {
-				if (!config.alwaysShowOverlay() && Instant.now().isAfter(kill.getExpirationTime())) {
-					continue;
-				}
+	/**
+	 * Inserts a new kill into the ungrouped display at its place in expiration order.
+	 * Only the new entry is added; the rest of the display is left as it is.
+	 */
+	private void updateIndividualDisplay(IndividualKill kill) {
+		allEntries.removeIf(LootHudEntry::isGrouped);
 
-				allKills.add(kill);
-			}
+		LootHudEntry entry = kill.getEntry();
+		int position = 0;
+		while (position < allEntries.size() && allEntries.get(position).getExpirationTime() > entry.getExpirationTime()) {
+			position++;
 		}
+		allEntries.add(position, entry);
+		entryExpirations.schedule(entry.getExpirationTime(), entry);
 
-		allKills.sort((a, b) -> b.getExpirationTime().compareTo(a.getExpirationTime()));
+		while (allEntries.size() > settings.maxNotifications * 2) {
+			allEntries.remove(allEntries.size() - 1);
+		}
+	}
 
-		allEntries.removeIf(entry -> entry.isGrouped());
-		allEntries.clear();
+	/**
+	 * Tops up the ungrouped display from the kill index after entries were removed from it.
+	 * Only walks as many kills as the display can hold.
+	 */
+	private void fillIndividualDisplay() {
+		int limit = settings.maxNotifications * 2;
+		if (settings.groupLoot || allEntries.size() >= limit) {
+			return;
+		}
 
-		for (IndividualKill kill : allKills) {
-			LootHudEntry individualEntry = new LootHudEntry(
-					kill.getSourceName(),
-					kill.getItems(),
-					kill.getKillCount(),
-					kill.getExpirationTime(),
-					kill.getTotalValue(),
-					kill.getType(),
-					kill.isRare(),
-					false
-			);
+		int position = 0;
+		for (IndividualKill kill : killIndex) {
+			if (position >= limit) {
+				break;
+			}
 
-			allEntries.add(individualEntry);
+			LootHudEntry entry = kill.getEntry();
+			if (position >= allEntries.size() || allEntries.get(position) != entry) {
+				allEntries.add(position, entry);
+				entryExpirations.schedule(entry.getExpirationTime(), entry);
+			}
+			position++;
 		}
+	}
 
-		while (allEntries.size() > config.maxNotifications() * 2) {
-			allEntries.remove(allEntries.size() - 1);
+	/**
+	 * Removes an entry by identity, equal loot from separate kills gets separate entries.
+	 * @param entry Entry to remove
+	 * @return whether the entry was displayed
+	 */
+	private boolean removeEntry(LootHudEntry entry) {
+		for (int i = 0; i < allEntries.size(); i++) {
+			if (allEntries.get(i) == entry) {
+				allEntries.remove(i);
+				return true;
+			}
 		}
+		return false;
 	}
 
-	private String createEventHash(LootReceived event, List<ItemStack> items, long totalValue) {
-		StringBuilder hash = new StringBuilder();
-		hash.append(event.getName()).append("|");
-		hash.append(event.getType()).append("|");
-		hash.append(event.getAmount()).append("|");
-		hash.append(totalValue).append("|");
-
-		for (ItemStack item : items) {
-			hash.append(item.getId()).append(":").append(item.getQuantity()).append(";");
+	/**
+	 * Removes entries, kills and running totals whose expiration time has passed.
+	 * Only items that are actually due are visited.
+	 * @param nowMillis Current {@link LootHudClock} time
+	 */
+	private void expireData(long nowMillis) {
+		if (settings.alwaysShowOverlay) {
+			return;
 		}
 
-		return hash.toString();
-	}
+		entryExpirations.pollExpired(nowMillis, allEntries::remove);
 
-	private void cleanupExpiredData() {
-		Instant now = Instant.now();
+		killExpirations.pollExpired(nowMillis, kill -> {
+			killIndex.remove(kill);
 
-		if (!config.alwaysShowOverlay()) {
-			for (List<IndividualKill> kills : individualKills.values()) {
-				kills.removeIf(kill -> now.isAfter(kill.getExpirationTime()));
+			String monsterKey = kill.getSourceName() + "|" + kill.getType();
+			List<IndividualKill> kills = individualKills.get(monsterKey);
+			if (kills != null && kills.remove(kill) && kills.isEmpty()) {
+				individualKills.remove(monsterKey);
 			}
+		});
 
-			individualKills.entrySet().removeIf(entry -> entry.getValue().isEmpty());
-			runningTotals.entrySet().removeIf(entry -> now.isAfter(entry.getValue().getExpirationTime()));
-		}
+		totalExpirations.pollExpired(nowMillis, total -> {
+			// Totals are rescheduled whenever a kill extends them, so only remove if still expired
+			if (nowMillis > total.getExpirationTime()) {
+				runningTotals.remove(total.getSourceName() + "|" + total.getType(), total);
+			}
+		});
 	}
 
 	private void updateRareItemNamesCache()
 	{
-		rareItemNamesCache.clear();
+		Set<String> patterns = new LinkedHashSet<>();
 		String rareItemNames = config.rareItemNames();
 		if (rareItemNames != null && !rareItemNames.trim().isEmpty()) {
 			String[] names = rareItemNames.split(",");
 			for (String name : names) {
 				name = name.trim().toLowerCase();
 				if (!name.isEmpty()) {
-					rareItemNamesCache.add(name);
+					patterns.add(name);
 					log.debug("Added rare item pattern: {}", name);
 				}
 			}
 		}
-		log.info("Loaded {} rare item patterns from config", rareItemNamesCache.size());
+		rareItemMatcher = WildcardPatternSet.compile(patterns);
+		log.info("Loaded {} rare item patterns from config", patterns.size());
 	}
 
 	private void updateIgnoredItemNamesCache()
 	{
-		ignoredItemNamesCache.clear();
+		Set<String> patterns = new LinkedHashSet<>();
 		String ignoredItemNames = config.ignoredItemNames();
 		if (ignoredItemNames != null && !ignoredItemNames.trim().isEmpty()) {
 			String[] names = ignoredItemNames.split(",");
 			for (String name : names) {
 				name = name.trim().toLowerCase();
 				if (!name.isEmpty()) {
-					ignoredItemNamesCache.add(name);
+					patterns.add(name);
 					log.debug("Added ignored item pattern: {}", name);
 				}
 			}
 		}
-		log.info("Loaded {} ignored item patterns from config", ignoredItemNamesCache.size());
+		ignoredItemMatcher = WildcardPatternSet.compile(patterns);
+		log.info("Loaded {} ignored item patterns from config", patterns.size());
 	}
 
 	private void updateIgnoredSourcesCache()
 	{
-		ignoredSourcesCache.clear();
+		Set<String> patterns = new LinkedHashSet<>();
 		String ignoredSources = config.ignoredSources();
 		if (ignoredSources != null && !ignoredSources.trim().isEmpty()) {
 			String[] names = ignoredSources.split(",");
 			for (String name : names) {
 				name = name.trim().toLowerCase();
 				if (!name.isEmpty()) {
-					ignoredSourcesCache.add(name);
+					patterns.add(name);
 					log.debug("Added ignored source pattern: {}", name);
 				}
 			}
 		}
-		log.info("Loaded {} ignored source patterns from config", ignoredSourcesCache.size());
+		ignoredSourcesMatcher = WildcardPatternSet.compile(patterns);
+		log.info("Loaded {} ignored source patterns from config", patterns.size());
 	}
 
 	@Subscribe
-	private void onConfigChanged(net.runelite.client.events.ConfigChanged event)
+	void onConfigChanged(net.runelite.client.events.ConfigChanged event)
 	{
 		if (!event.getGroup().equals("loothud")) {
 			return;
 		}
 
-		switch (event.getKey()) {
+		// Take the new snapshot right away, readers on any thread pick it up with their next read
+		settings = LootHudSettings.from(config);
+		changeGeneration.incrementAndGet();
+
+		// Config changes arrive on the Swing thread, loot state is only modified on the client thread
+		String key = event.getKey();
+		clientThread.invoke(() -> applyConfigChange(key));
+	}
+
+	private void applyConfigChange(String key)
+	{
+		switch (key) {
 			case "rareItemNames":
 				updateRareItemNamesCache();
+				itemClassifications.clear();
+				itemCatalogue.rebuild(rareItemMatcher, ignoredItemMatcher);
+				refreshItemInfo();
+				break;
+			case "valueThreshold1":
+			case "valueThreshold2":
+			case "valueThreshold3":
+			case "valueThreshold4":
+			case "valueThreshold5":
+				refreshItemInfo();
 				break;
 			case "ignoredItemNames":
 				updateIgnoredItemNamesCache();
+				itemClassifications.clear();
+				itemCatalogue.rebuild(rareItemMatcher, ignoredItemMatcher);
 				rebuildAllEntriesWithFilter();
 				break;
 			case "ignoredSources":
@@ -460,21 +685,104 @@ public class LootHudPlugin extends Plugin
 				cleanupEntriesFromIgnoredSources();
 				break;
 			case "resetGroupOnLogout":
-				if (config.resetGroupOnLogout()) {
+				if (settings.resetGroupOnLogout) {
 					runningTotals.clear();
 					individualKills.clear();
+					killIndex.clear();
 					log.info("Cleared all loot data due to config change");
 				}
 				break;
 			case "groupLoot":
 				rebuildDisplay();
 				break;
+			case "showDebugStats":
+				if (settings.showDebugStats) {
+					stats.reset();
+					ticksSinceStatsLogged = 0;
+				} else {
+					log.info("Loot HUD stats:\n{}", stats.summary());
+				}
+				break;
+			case "recordLootJournal":
+				if (settings.recordLootJournal) {
+					startJournal();
+				} else {
+					stopJournal();
+				}
+				break;
 		}
+
+		// Any loothud setting may change which entries are shown
+		publishRecentLoot();
+	}
+
+	private void startJournal()
+	{
+		if (recordingJournal) {
+			return;
+		}
+
+		recordingJournal = true;
+		File file = new File(JOURNAL_DIR, LocalDateTime.now().format(JOURNAL_NAME_FORMAT));
+		executor.execute(() -> {
+			try {
+				JOURNAL_DIR.mkdirs();
+				journal = LootJournal.create(file);
+				log.info("Recording loot journal to {}", file);
+			} catch (IOException e) {
+				log.warn("Unable to create loot journal {}", file, e);
+			}
+		});
+	}
+
+	private void stopJournal()
+	{
+		if (!recordingJournal) {
+			return;
+		}
+
+		recordingJournal = false;
+		executor.execute(this::closeJournal);
+	}
+
+	private void recordLoot(LootReceived event)
+	{
+		long tick = gameTicks;
+		long millis = clock.millis();
+		executor.execute(() -> {
+			if (journal == null) {
+				return;
+			}
+
+			try {
+				journal.append(tick, millis, event);
+			} catch (IOException e) {
+				log.warn("Error writing loot journal, recording stopped", e);
+				closeJournal();
+			}
+		});
+	}
+
+	/**
+	 * Closes the journal, on the executor after the records queued before it.
+	 */
+	private void closeJournal()
+	{
+		if (journal == null) {
+			return;
+		}
+
+		try {
+			journal.close();
+		} catch (IOException e) {
+			log.warn("Error closing loot journal", e);
+		}
+		journal = null;
 	}
 
 	private void cleanupEntriesFromIgnoredSources()
 	{
-		if (ignoredSourcesCache.isEmpty()) {
+		if (ignoredSourcesMatcher.isEmpty()) {
 			return;
 		}
 
@@ -484,6 +792,7 @@ public class LootHudPlugin extends Plugin
 			Map.Entry<String, List<IndividualKill>> entry = it.next();
 			String sourceName = entry.getKey().split("\\|")[0];
 			if (isSourceIgnored(sourceName)) {
+				entry.getValue().forEach(killIndex::remove);
 				it.remove();
 			}
 		}
@@ -496,6 +805,7 @@ public class LootHudPlugin extends Plugin
 			}
 		}
 
+		fillIndividualDisplay();
 		log.info("Cleaned up entries from ignored sources");
 	}
 
@@ -528,34 +838,32 @@ public class LootHudPlugin extends Plugin
 
 					if (!filteredIsRare) {
 						try {
-							ItemComposition comp = itemManager.getItemComposition(item.getId());
-							String itemName = comp.getName().toLowerCase().trim();
-							for (String rarePattern : rareItemNamesCache) {
-								if (WildcardMatcher.matches(rarePattern, itemName)) {
-									filteredIsRare = true;
-									break;
-								}
-							}
+							filteredIsRare = isRareItem(item.getId());
 						} catch (Exception e) {
 							log.warn("Error re-checking rare status for item ID: {}", item.getId(), e);
 						}
 					}
 				}
 
-				boolean exceedsRareValue = config.rareValueThreshold() > 0 && filteredTotalValue >= config.rareValueThreshold();
+				int rareValueThreshold = settings.rareValueThreshold;
+				boolean exceedsRareValue = rareValueThreshold > 0 && filteredTotalValue >= rareValueThreshold;
 				filteredIsRare = filteredIsRare || exceedsRareValue;
 
+				// Keeps its place among kills with the same expiration time
 				IndividualKill newKill = new IndividualKill(
+						oldKill.getSequence(),
 						oldKill.getSourceName(),
 						oldKill.getType(),
 						filteredItems,
 						oldKill.getKillCount(),
 						filteredTotalValue,
 						filteredIsRare,
-						oldKill.getExpirationTime()
+						oldKill.getExpirationTime(),
+						describeItems(filteredItems)
 				);
 
 				newKills.add(newKill);
+				killExpirations.schedule(newKill.getExpirationTime(), newKill);
 			}
 
 			if (!newKills.isEmpty()) {
@@ -566,19 +874,24 @@ public class LootHudPlugin extends Plugin
 		individualKills.clear();
 		individualKills.putAll(newIndividualKills);
 
+		killIndex.clear();
+		newIndividualKills.values().forEach(killIndex::addAll);
+
 		rebuildDisplay();
 	}
 
 	private void rebuildDisplay()
 	{
+		LootHudSettings settings = this.settings;
+		long now = clock.millis();
 		allEntries.clear();
 
-		if (config.groupLoot()) {
+		if (settings.groupLoot) {
 			List<RunningTotal> sortedTotals = new ArrayList<>(runningTotals.values());
-			sortedTotals.sort((a, b) -> b.getExpirationTime().compareTo(a.getExpirationTime()));
+			sortedTotals.sort((a, b) -> Long.compare(b.getExpirationTime(), a.getExpirationTime()));
 
 			for (RunningTotal total : sortedTotals) {
-				if (!config.alwaysShowOverlay() && Instant.now().isAfter(total.getExpirationTime())) {
+				if (!settings.alwaysShowOverlay && now > total.getExpirationTime()) {
 					continue;
 				}
 
@@ -590,101 +903,282 @@ public class LootHudPlugin extends Plugin
 						total.getTotalValue(),
 						total.getType(),
 						total.isRare(),
-						true
+						true,
+						describeTotal(total)
 				);
 
 				allEntries.add(groupedEntry);
+				entryExpirations.schedule(groupedEntry.getExpirationTime(), groupedEntry);
 			}
 		} else {
-			List<IndividualKill> allKills = new ArrayList<>();
-
-			for (Map.Entry<String, List<IndividualKill>> entry : individualKills.entrySet()) {
-				List<IndividualKill> kills = entry.getValue();
-
-				for (IndividualKill kill : kills) {
-					if (!config.alwaysShowOverlay() && Instant.now().isAfter(kill.getExpirationTime())) {
-						continue;
-					}
-
-					allKills.add(kill);
+			// The kill index is already in display order
+			for (IndividualKill kill : killIndex) {
+				if (!settings.alwaysShowOverlay && now > kill.getExpirationTime()) {
+					continue;
 				}
-			}
-
-			allKills.sort((a, b) -> b.getExpirationTime().compareTo(a.getExpirationTime()));
-
-			for (IndividualKill kill : allKills) {
-				LootHudEntry individualEntry = new LootHudEntry(
-						kill.getSourceName(),
-						kill.getItems(),
-						kill.getKillCount(),
-						kill.getExpirationTime(),
-						kill.getTotalValue(),
-						kill.getType(),
-						kill.isRare(),
-						false
-				);
 
+				LootHudEntry individualEntry = kill.getEntry();
 				allEntries.add(individualEntry);
+				entryExpirations.schedule(individualEntry.getExpirationTime(), individualEntry);
 			}
 
 			log.info("Switched to ungrouped mode - showing {} individual kills", allEntries.size());
 		}
 	}
 
-	private boolean shouldShowLoot(net.runelite.http.api.loottracker.LootRecordType type)
+	private boolean shouldShowLoot(LootHudSettings settings, net.runelite.http.api.loottracker.LootRecordType type)
 	{
 		switch (type)
 		{
 			case NPC:
-				return config.includeNPCKills();
+				return settings.includeNPCKills;
 			case PLAYER:
-				return config.includePlayerKills();
+				return settings.includePlayerKills;
 			case PICKPOCKET:
-				return config.includePickpocket();
+				return settings.includePickpocket;
 			case EVENT:
-				return config.includeEvents();
+				return settings.includeEvents;
 			default:
 				return true;
 		}
 	}
 
+	/**
+	 * Gets the rare/ignored verdict for an item. Uses the precomputed catalogue verdicts
+	 * when a sweep for the current patterns has finished, otherwise matches the item name
+	 * against the configured patterns the first time the item ID is seen.
+	 * @param itemId The item ID
+	 * @return combination of {@link ItemClassificationCache#RARE} and {@link ItemClassificationCache#IGNORED}
+	 */
+	private int classifyItem(int itemId)
+	{
+		int flags = itemCatalogue.get(itemId, rareItemMatcher, ignoredItemMatcher);
+		if (flags != ItemClassificationCache.UNKNOWN) {
+			return flags;
+		}
+
+		flags = itemClassifications.get(itemId);
+		if (flags != ItemClassificationCache.UNKNOWN) {
+			return flags;
+		}
+
+		flags = ItemClassificationCache.NONE;
+		if (!rareItemMatcher.isEmpty() || !ignoredItemMatcher.isEmpty()) {
+			ItemComposition comp = itemManager.getItemComposition(itemId);
+			String itemName = comp.getName();
+
+			String rarePattern = rareItemMatcher.firstMatch(itemName);
+			if (rarePattern != null) {
+				flags |= ItemClassificationCache.RARE;
+				log.debug("Rare item detected: {} (matches pattern: {})", itemName, rarePattern);
+			}
+
+			String ignoredPattern = ignoredItemMatcher.firstMatch(itemName);
+			if (ignoredPattern != null) {
+				flags |= ItemClassificationCache.IGNORED;
+				log.debug("Ignoring item: {} (matches pattern: {})", itemName, ignoredPattern);
+			}
+		}
+
+		itemClassifications.put(itemId, flags);
+		return flags;
+	}
+
+	/**
+	 * Sorts items by price, most valuable first, keeping the order of items with the same price.
+	 * Loot has a few dozen items at most, an insertion sort over both arrays doesn't allocate.
+	 * @param items Items to sort in place
+	 * @param prices Price of each item, moved along with it
+	 */
+	private static void sortByPrice(List<ItemStack> items, int[] prices)
+	{
+		for (int i = 1; i < prices.length; i++) {
+			ItemStack item = items.get(i);
+			int price = prices[i];
+			int j = i - 1;
+			while (j >= 0 && prices[j] < price) {
+				items.set(j + 1, items.get(j));
+				prices[j + 1] = prices[j];
+				j--;
+			}
+			items.set(j + 1, item);
+			prices[j + 1] = price;
+		}
+	}
+
+	private boolean isRareItem(int itemId)
+	{
+		return (classifyItem(itemId) & ItemClassificationCache.RARE) != 0;
+	}
+
+	/**
+	 * Computes what the overlay shows for each item, so it doesn't have to while drawing.
+	 * @param items Items in display order
+	 * @return rarity, value tier and label of each item
+	 */
+	private LootItemInfo describeItems(List<ItemStack> items)
+	{
+		byte[] flags = new byte[items.size()];
+		String[] labels = new String[items.size()];
+
+		for (int i = 0; i < items.size(); i++) {
+			describeItem(items.get(i), i, flags, labels);
+		}
+
+		return new LootItemInfo(flags, labels);
+	}
+
+	/**
+	 * Computes what the overlay shows for the items of a running total. Only items that are new or
+	 * whose quantity changed since the last call are described, so refreshing a group costs what
+	 * the new loot does rather than what was collected so far.
+	 * @param total Running total
+	 * @return rarity, value tier and label of each item, in the order of {@link RunningTotal#getItems()}
+	 */
+	private LootItemInfo describeTotal(RunningTotal total)
+	{
+		List<ItemStack> items = total.getItems();
+		if (total.itemInfo != null && total.describedItems == items) {
+			return total.itemInfo;
+		}
+
+		int size = items.size();
+		if (total.itemStacks.length < size) {
+			int capacity = Math.max(size, total.itemStacks.length * 2);
+			total.itemStacks = Arrays.copyOf(total.itemStacks, capacity);
+			total.itemFlags = Arrays.copyOf(total.itemFlags, capacity);
+			total.itemLabels = Arrays.copyOf(total.itemLabels, capacity);
+		}
+
+		for (int i = 0; i < size; i++) {
+			// The item list reuses the stack of every item whose quantity didn't change
+			ItemStack item = items.get(i);
+			if (total.itemStacks[i] != item) {
+				describeItem(item, i, total.itemFlags, total.itemLabels);
+				total.itemStacks[i] = item;
+			}
+		}
+
+		// The info is handed to the overlay, so it gets its own copy of the arrays
+		total.itemInfo = new LootItemInfo(Arrays.copyOf(total.itemFlags, size), Arrays.copyOf(total.itemLabels, size));
+		total.describedItems = items;
+		return total.itemInfo;
+	}
+
+	private void describeItem(ItemStack item, int index, byte[] flags, String[] labels)
+	{
+		try {
+			ItemComposition comp = itemManager.getItemComposition(item.getId());
+			long value = (long) itemManager.getItemPrice(item.getId()) * item.getQuantity();
+			boolean showQuantity = comp.isStackable() || item.getQuantity() > 1;
+			flags[index] = LootItemInfo.pack(isRareItem(item.getId()), showQuantity, settings.getValueTier(value));
+			labels[index] = item.getQuantity() > 1 ? comp.getName() + " (" + item.getQuantity() + ")" : comp.getName();
+		} catch (Exception e) {
+			// Left without a label, the overlay draws its icon without a name
+			flags[index] = LootItemInfo.pack(false, item.getQuantity() > 1, -1);
+			labels[index] = null;
+			log.debug("Error describing item ID: {}", item.getId(), e);
+		}
+	}
+
+	/**
+	 * Recomputes the item info of every stored entry after the rare patterns or value thresholds changed.
+	 * Published entries may still be read by the overlay, so they're replaced by copies rather than changed.
+	 */
+	private void refreshItemInfo()
+	{
+		for (RunningTotal total : runningTotals.values()) {
+			total.clearItemInfo();
+		}
+
+		Map<LootHudEntry, LootHudEntry> replacements = new IdentityHashMap<>();
+		for (IndividualKill kill : killIndex) {
+			LootHudEntry entry = kill.getEntry();
+			kill.replaceEntry(entry.withItemInfo(describeItems(entry.getItems())));
+			replacements.put(entry, kill.getEntry());
+		}
+
+		for (int i = 0; i < allEntries.size(); i++) {
+			LootHudEntry entry = allEntries.get(i);
+			LootHudEntry replacement = replacements.get(entry);
+			if (replacement == null) {
+				replacement = entry.withItemInfo(describeItems(entry.getItems()));
+			}
+			allEntries.set(i, replacement);
+			// The old entry's expiration is ignored, it's no longer displayed
+			entryExpirations.schedule(replacement.getExpirationTime(), replacement);
+		}
+	}
+
 	private boolean isSourceIgnored(String sourceName)
 	{
-		if (ignoredSourcesCache.isEmpty()) {
-			return false;
+		return ignoredSourcesMatcher.matches(sourceName);
+	}
+
+	@Subscribe
+	public void onBeforeRender(BeforeRender event)
+	{
+		if (settings.alwaysShowOverlay) {
+			return;
 		}
 
-		return WildcardMatcher.anyMatches(ignoredSourcesCache, sourceName);
+		long now = clock.millis();
+		if (pendingLoot.isEmpty()) {
+			if (entryExpirations.hasExpired(now) || killExpirations.hasExpired(now) || totalExpirations.hasExpired(now)) {
+				expireData(now);
+				publishRecentLoot(now);
+			}
+		} else if (entryExpirations.hasExpired(now)) {
+			// Loot waiting for the next tick may still extend kills and totals, those expire when it is applied
+			entryExpirations.pollExpired(now, allEntries::remove);
+			publishRecentLoot(now);
+		}
 	}
 
+	/**
+	 * Gets the entries to display, newest first and limited to the configured maximum.
+	 * The list is an immutable snapshot published by the client thread on game ticks that
+	 * received loot, when the config changes or an entry expires, so it is safe and cheap to read
+	 * from any thread every frame.
+	 * @return immutable list of visible entries
+	 */
 	List<LootHudEntry> getRecentLoot()
 	{
+		return recentLoot.entries;
+	}
+
+	private RecentLoot publishRecentLoot()
+	{
+		return publishRecentLoot(clock.millis());
+	}
+
+	private RecentLoot publishRecentLoot(long now)
+	{
+		LootHudSettings settings = this.settings;
 		List<LootHudEntry> visibleEntries = new ArrayList<>();
 
 		for (LootHudEntry entry : allEntries) {
-			if (!config.alwaysShowOverlay() && entry.isExpired()) {
+			if (!settings.alwaysShowOverlay && entry.isExpired(now)) {
 				continue;
 			}
 
-			if (config.minValueToShow() > 0 && entry.getTotalValue() < config.minValueToShow()) {
+			if (settings.minValueToShow > 0 && entry.getTotalValue() < settings.minValueToShow) {
 				continue;
 			}
 
-			// Update fade-out animation if enabled
-			if (config.fadeOutAnimation() && !config.alwaysShowOverlay()) {
-				long fadeDurationMillis = config.fadeOutDuration() * 1000L;
-				entry.updateFadeAnimation(fadeDurationMillis);
-			}
-
 			visibleEntries.add(entry);
 		}
 
 		// Sort by expiration time (newest first)
-		visibleEntries.sort((a, b) -> b.getExpirationTime().compareTo(a.getExpirationTime()));
+		visibleEntries.sort((a, b) -> Long.compare(b.getExpirationTime(), a.getExpirationTime()));
 
 		// Limit to max notifications
-		int limit = Math.min(config.maxNotifications(), visibleEntries.size());
-		return visibleEntries.subList(0, limit);
+		int limit = Math.min(settings.maxNotifications, visibleEntries.size());
+		RecentLoot published = new RecentLoot(Collections.unmodifiableList(new ArrayList<>(visibleEntries.subList(0, limit))));
+		// Single volatile write, readers see either the old or the new list but never a partial one
+		recentLoot = published;
+		changeGeneration.incrementAndGet();
+		return published;
 	}
 
 	boolean isOverlayVisible()
@@ -693,90 +1187,77 @@ public class LootHudPlugin extends Plugin
 	}
 
 	/**
-	 * Gets the color for an item based on its value and configured thresholds.
-	 * @param itemValue The value of the item
-	 * @return The appropriate color for this item value
+	 * Gets a counter that changes after the recent loot, the settings or the overlay's visibility do.
+	 * Read it before any of those, then a frame drawn from them is current as long as the counter
+	 * stays the same.
+	 * @return change generation
 	 */
-	java.awt.Color getItemValueColor(long itemValue)
+	long getChangeGeneration()
 	{
-		if (itemValue >= config.valueThreshold5()) {
-			return config.valueColor5();
-		} else if (itemValue >= config.valueThreshold4()) {
-			return config.valueColor4();
-		} else if (itemValue >= config.valueThreshold3()) {
-			return config.valueColor3();
-		} else if (itemValue >= config.valueThreshold2()) {
-			return config.valueColor2();
-		} else if (itemValue >= config.valueThreshold1()) {
-			return config.valueColor1();
-		}
-		return config.itemNameColor();
+		return changeGeneration.get();
 	}
 
 	/**
-	 * Gets the overlay color based on total value and configured thresholds.
-	 * @param totalValue The total value of the loot entry
-	 * @return The appropriate overlay color for this total value
+	 * Gets the current settings. Callers should read them once per frame or event and
+	 * keep using that snapshot, so they see consistent values throughout.
+	 * @return immutable settings snapshot
 	 */
-	java.awt.Color getOverlayValueColor(long totalValue)
+	LootHudSettings getSettings()
 	{
-		if (totalValue >= config.valueThreshold5()) {
-			return config.overlayColor5();
-		} else if (totalValue >= config.valueThreshold4()) {
-			return config.overlayColor4();
-		} else if (totalValue >= config.valueThreshold3()) {
-			return config.overlayColor3();
-		} else if (totalValue >= config.valueThreshold2()) {
-			return config.overlayColor2();
-		} else if (totalValue >= config.valueThreshold1()) {
-			return config.overlayColor1();
-		}
-		return config.backgroundColor();
+		return settings;
 	}
 
-	/**
-	 * Gets the header overlay color based on total value and configured thresholds.
-	 * @param totalValue The total value of the loot entry
-	 * @return The appropriate header overlay color for this total value
-	 */
-	java.awt.Color getHeaderValueColor(long totalValue)
-	{
-		// For header, use a slightly darker version of the overlay color
-		java.awt.Color baseColor = getOverlayValueColor(totalValue);
-		if (baseColor.equals(config.backgroundColor())) {
-			return config.headerBackgroundColor();
-		}
+	private static class RecentLoot {
+		private static final RecentLoot EMPTY = new RecentLoot(Collections.emptyList());
 
-		// Darken the color by reducing RGB values
-		return new java.awt.Color(
-				Math.max(0, baseColor.getRed() - 40),
-				Math.max(0, baseColor.getGreen() - 40),
-				Math.max(0, baseColor.getBlue() - 40),
-				baseColor.getAlpha()
-		);
+		private final List<LootHudEntry> entries;
+
+		RecentLoot(List<LootHudEntry> entries) {
+			this.entries = entries;
+		}
 	}
 
-	// Add this getter method to expose the cache to the overlay
-	Set<String> getRareItemNamesCache()
-	{
-		return rareItemNamesCache;
+	private static class PendingLoot {
+		private final LootReceived event;
+		private final List<ItemStack> sortedItems;
+		private final long totalValue;
+		private final long receivedTime;
+		private final long expirationTime;
+		private final boolean isRare;
+
+		PendingLoot(LootReceived event, List<ItemStack> sortedItems, long totalValue, long receivedTime,
+					long expirationTime, boolean isRare) {
+			this.event = event;
+			this.sortedItems = sortedItems;
+			this.totalValue = totalValue;
+			this.receivedTime = receivedTime;
+			this.expirationTime = expirationTime;
+			this.isRare = isRare;
+		}
 	}
 
 	private static class RunningTotal {
 		private final String sourceName;
 		private final net.runelite.http.api.loottracker.LootRecordType type;
-		private List<ItemStack> items;
+		private final ItemQuantityMap items = new ItemQuantityMap();
 		private int killCount;
 		private long totalValue;
 		private boolean isRare;
-		private Instant expirationTime;
+		private long expirationTime;
+
+		// Item info cache of describeTotal, indexed like the items
+		private ItemStack[] itemStacks = new ItemStack[0];
+		private byte[] itemFlags = new byte[0];
+		private String[] itemLabels = new String[0];
+		private List<ItemStack> describedItems;
+		private LootItemInfo itemInfo;
 
 		public RunningTotal(String sourceName, net.runelite.http.api.loottracker.LootRecordType type,
 							List<ItemStack> items, int killCount, long totalValue,
-							boolean isRare, Instant expirationTime) {
+							boolean isRare, long expirationTime) {
 			this.sourceName = sourceName;
 			this.type = type;
-			this.items = new ArrayList<>(items);
+			this.items.addAll(items);
 			this.killCount = killCount;
 			this.totalValue = totalValue;
 			this.isRare = isRare;
@@ -784,54 +1265,57 @@ public class LootHudPlugin extends Plugin
 		}
 
 		public void addKill(List<ItemStack> newItems, int newKillCount, long newTotalValue,
-							boolean newIsRare, Instant newExpirationTime) {
-			Map<Integer, ItemStack> itemMap = new HashMap<>();
-
-			for (ItemStack item : this.items) {
-				itemMap.put(item.getId(), new ItemStack(item.getId(), item.getQuantity()));
-			}
-
-			for (ItemStack newItem : newItems) {
-				int itemId = newItem.getId();
-				ItemStack existing = itemMap.get(itemId);
-				if (existing != null) {
-					itemMap.put(itemId, new ItemStack(itemId, existing.getQuantity() + newItem.getQuantity()));
-				} else {
-					itemMap.put(itemId, new ItemStack(itemId, newItem.getQuantity()));
-				}
-			}
-
-			this.items = new ArrayList<>(itemMap.values());
+							boolean newIsRare, long newExpirationTime) {
+			// Quantities are updated in place, no per-kill copy of the accumulated items
+			this.items.addAll(newItems);
 			this.killCount += newKillCount;
 			this.totalValue += newTotalValue;
 			this.isRare = this.isRare || newIsRare;
 
-			if (newExpirationTime.isAfter(this.expirationTime)) {
+			if (newExpirationTime > this.expirationTime) {
 				this.expirationTime = newExpirationTime;
 			}
 		}
 
+		/**
+		 * Drops the described items, so they're described again with the current rare patterns and thresholds.
+		 */
+		void clearItemInfo() {
+			Arrays.fill(itemStacks, null);
+			describedItems = null;
+			itemInfo = null;
+		}
+
 		public String getSourceName() { return sourceName; }
 		public net.runelite.http.api.loottracker.LootRecordType getType() { return type; }
-		public List<ItemStack> getItems() { return new ArrayList<>(items); }
+		// Immutable, only rebuilt when a kill changed the totals
+		public List<ItemStack> getItems() { return items.asList(); }
 		public int getKillCount() { return killCount; }
 		public long getTotalValue() { return totalValue; }
 		public boolean isRare() { return isRare; }
-		public Instant getExpirationTime() { return expirationTime; }
+		public long getExpirationTime() { return expirationTime; }
 	}
 
 	private static class IndividualKill {
+		private static final Comparator<IndividualKill> NEWEST_FIRST = Comparator
+				.comparingLong(IndividualKill::getExpirationTime)
+				.thenComparingLong(IndividualKill::getSequence)
+				.reversed();
+
+		private final long sequence;
 		private final String sourceName;
 		private final net.runelite.http.api.loottracker.LootRecordType type;
 		private final List<ItemStack> items;
 		private final int killCount;
 		private final long totalValue;
 		private final boolean isRare;
-		private final Instant expirationTime;
+		private final long expirationTime;
+		private LootHudEntry entry;
 
-		public IndividualKill(String sourceName, net.runelite.http.api.loottracker.LootRecordType type,
+		public IndividualKill(long sequence, String sourceName, net.runelite.http.api.loottracker.LootRecordType type,
 							  List<ItemStack> items, int killCount, long totalValue,
-							  boolean isRare, Instant expirationTime) {
+							  boolean isRare, long expirationTime, LootItemInfo itemInfo) {
+			this.sequence = sequence;
 			this.sourceName = sourceName;
 			this.type = type;
 			this.items = new ArrayList<>(items);
@@ -839,14 +1323,23 @@ public class LootHudPlugin extends Plugin
 			this.totalValue = totalValue;
 			this.isRare = isRare;
 			this.expirationTime = expirationTime;
+			this.entry = new LootHudEntry(sourceName, Collections.unmodifiableList(this.items), killCount,
+					expirationTime, totalValue, type, isRare, false, itemInfo);
 		}
 
+		public long getSequence() { return sequence; }
 		public String getSourceName() { return sourceName; }
 		public net.runelite.http.api.loottracker.LootRecordType getType() { return type; }
 		public List<ItemStack> getItems() { return new ArrayList<>(items); }
 		public int getKillCount() { return killCount; }
 		public long getTotalValue() { return totalValue; }
 		public boolean isRare() { return isRare; }
-		public Instant getExpirationTime() { return expirationTime; }
+		public long getExpirationTime() { return expirationTime; }
+		public LootHudEntry getEntry() { return entry; }
+
+		/**
+		 * Swaps in a copy of the entry with new item info, the kill itself doesn't change.
+		 */
+		void replaceEntry(LootHudEntry entry) { this.entry = entry; }
 	}
 }
\ No newline at end of file
@@ -0,0 +1,322 @@
+package com.LootHUD;
+
+import java.awt.Color;
+
+/**
+ * Immutable snapshot of {@link LootHudConfig}.
+ * Every config getter goes through the config proxy and a string lookup in the
+ * ConfigManager, so the plugin takes one snapshot when the config changes and the
+ * render and loot paths read plain fields from it instead.
+ */
+class LootHudSettings
+{
+    // Appearance
+    final Color backgroundColor;
+    final Color headerBackgroundColor;
+    final Color borderColor;
+    final int borderWidth;
+    final boolean useGradient;
+    final Color gradientEndColor;
+
+    // Display
+    final int displayDuration;
+    final boolean alwaysShowOverlay;
+    final int maxNotifications;
+    final boolean fadeOlderEntries;
+    final boolean fadeOutAnimation;
+    final int fadeOutDuration;
+    final boolean showTotalValue;
+    final boolean showLootTypeIcon;
+    final boolean showItemNames;
+    final LootHudConfig.ItemNamePosition itemNamePosition;
+
+    // Items
+    final boolean showItemIcons;
+    final int maxIconsPerEntry;
+    final int iconsPerRow;
+    final boolean sortItemsByValue;
+
+    // Rare items
+    final LootHudConfig.RareItemHighlight rareItemHighlight;
+    final int rareValueThreshold;
+    final Color staticHighlightColor;
+    final int rainbowAnimationSpeed;
+    final int rainbowAlpha;
+    final int pulseAnimationSpeed;
+    final int pulseAlphaRange;
+
+    // Filters
+    final boolean includeNPCKills;
+    final boolean includePlayerKills;
+    final boolean includePickpocket;
+    final boolean includeEvents;
+    final int minValueToShow;
+
+    // Grouping
+    final boolean groupLoot;
+    final int groupKillThreshold;
+    final boolean resetGroupOnLogout;
+
+    // Text colors
+    final Color sourceNameColor;
+    final Color itemNameColor;
+    final Color highlightedItemNameColor;
+    final Color valueTextColor;
+
+    // Value thresholds, lowest tier first
+    final boolean valueBasedOverlay;
+    private final int[] valueThresholds;
+    private final Color[] valueColors;
+    private final Color[] overlayColors;
+    private final Color[] headerColors;
+
+    // Performance
+    final boolean adaptiveQuality;
+    final int frameBudget;
+    final int qualityRecoveryThreshold;
+    // Set by the lowest quality tier, only the item icons are drawn
+    final boolean iconsOnly;
+
+    // Debug
+    final boolean showDebugStats;
+    final boolean recordLootJournal;
+
+    private LootHudSettings(LootHudConfig config)
+    {
+        backgroundColor = config.backgroundColor();
+        headerBackgroundColor = config.headerBackgroundColor();
+        borderColor = config.borderColor();
+        borderWidth = config.borderWidth();
+        useGradient = config.useGradient();
+        gradientEndColor = config.gradientEndColor();
+
+        displayDuration = config.displayDuration();
+        alwaysShowOverlay = config.alwaysShowOverlay();
+        maxNotifications = config.maxNotifications();
+        fadeOlderEntries = config.fadeOlderEntries();
+        fadeOutAnimation = config.fadeOutAnimation();
+        fadeOutDuration = config.fadeOutDuration();
+        showTotalValue = config.showTotalValue();
+        showLootTypeIcon = config.showLootTypeIcon();
+        showItemNames = config.showItemNames();
+        itemNamePosition = config.itemNamePosition();
+
+        showItemIcons = config.showItemIcons();
+        maxIconsPerEntry = config.maxIconsPerEntry();
+        iconsPerRow = config.iconsPerRow();
+        sortItemsByValue = config.sortItemsByValue();
+
+        rareItemHighlight = config.rareItemHighlight();
+        rareValueThreshold = config.rareValueThreshold();
+        staticHighlightColor = config.staticHighlightColor();
+        rainbowAnimationSpeed = config.rainbowAnimationSpeed();
+        rainbowAlpha = config.rainbowAlpha();
+        pulseAnimationSpeed = config.pulseAnimationSpeed();
+        pulseAlphaRange = config.pulseAlphaRange();
+
+        includeNPCKills = config.includeNPCKills();
+        includePlayerKills = config.includePlayerKills();
+        includePickpocket = config.includePickpocket();
+        includeEvents = config.includeEvents();
+        minValueToShow = config.minValueToShow();
+
+        groupLoot = config.groupLoot();
+        groupKillThreshold = config.groupKillThreshold();
+        resetGroupOnLogout = config.resetGroupOnLogout();
+
+        sourceNameColor = config.sourceNameColor();
+        itemNameColor = config.itemNameColor();
+        highlightedItemNameColor = config.highlightedItemNameColor();
+        valueTextColor = config.valueTextColor();
+
+        valueBasedOverlay = config.valueBasedOverlay();
+        valueThresholds = new int[]{
+                config.valueThreshold1(), config.valueThreshold2(), config.valueThreshold3(),
+                config.valueThreshold4(), config.valueThreshold5()
+        };
+        valueColors = new Color[]{
+                config.valueColor1(), config.valueColor2(), config.valueColor3(),
+                config.valueColor4(), config.valueColor5()
+        };
+        overlayColors = new Color[]{
+                config.overlayColor1(), config.overlayColor2(), config.overlayColor3(),
+                config.overlayColor4(), config.overlayColor5()
+        };
+        headerColors = new Color[overlayColors.length];
+        for (int i = 0; i < overlayColors.length; i++)
+        {
+            headerColors[i] = headerColorFor(overlayColors[i]);
+        }
+
+        adaptiveQuality = config.adaptiveQuality();
+        frameBudget = config.frameBudget();
+        qualityRecoveryThreshold = config.qualityRecoveryThreshold();
+        iconsOnly = false;
+
+        showDebugStats = config.showDebugStats();
+        recordLootJournal = config.recordLootJournal();
+    }
+
+    private LootHudSettings(LootHudSettings base, QualityGovernor.Tier tier)
+    {
+        backgroundColor = base.backgroundColor;
+        headerBackgroundColor = base.headerBackgroundColor;
+        borderColor = base.borderColor;
+        borderWidth = base.borderWidth;
+        useGradient = base.useGradient && tier.compareTo(QualityGovernor.Tier.NO_GRADIENT) < 0;
+        gradientEndColor = base.gradientEndColor;
+
+        boolean entryAlpha = tier.compareTo(QualityGovernor.Tier.NO_ENTRY_ALPHA) < 0;
+        iconsOnly = tier == QualityGovernor.Tier.ICONS_ONLY;
+        displayDuration = base.displayDuration;
+        alwaysShowOverlay = base.alwaysShowOverlay;
+        maxNotifications = base.maxNotifications;
+        fadeOlderEntries = base.fadeOlderEntries && entryAlpha;
+        fadeOutAnimation = base.fadeOutAnimation && entryAlpha;
+        fadeOutDuration = base.fadeOutDuration;
+        showTotalValue = base.showTotalValue && !iconsOnly;
+        showLootTypeIcon = base.showLootTypeIcon && !iconsOnly;
+        showItemNames = base.showItemNames && !iconsOnly;
+        itemNamePosition = base.itemNamePosition;
+
+        showItemIcons = base.showItemIcons;
+        maxIconsPerEntry = base.maxIconsPerEntry;
+        iconsPerRow = base.iconsPerRow;
+        sortItemsByValue = base.sortItemsByValue;
+
+        // Animated highlights keep their entries highlighted, in the static color
+        boolean animated = base.rareItemHighlight == LootHudConfig.RareItemHighlight.RAINBOW
+                || base.rareItemHighlight == LootHudConfig.RareItemHighlight.PULSE;
+        rareItemHighlight = animated && tier.compareTo(QualityGovernor.Tier.NO_ANIMATION) >= 0
+                ? LootHudConfig.RareItemHighlight.STATIC : base.rareItemHighlight;
+        rareValueThreshold = base.rareValueThreshold;
+        staticHighlightColor = base.staticHighlightColor;
+        rainbowAnimationSpeed = base.rainbowAnimationSpeed;
+        rainbowAlpha = base.rainbowAlpha;
+        pulseAnimationSpeed = base.pulseAnimationSpeed;
+        pulseAlphaRange = base.pulseAlphaRange;
+
+        includeNPCKills = base.includeNPCKills;
+        includePlayerKills = base.includePlayerKills;
+        includePickpocket = base.includePickpocket;
+        includeEvents = base.includeEvents;
+        minValueToShow = base.minValueToShow;
+
+        groupLoot = base.groupLoot;
+        groupKillThreshold = base.groupKillThreshold;
+        resetGroupOnLogout = base.resetGroupOnLogout;
+
+        sourceNameColor = base.sourceNameColor;
+        itemNameColor = base.itemNameColor;
+        highlightedItemNameColor = base.highlightedItemNameColor;
+        valueTextColor = base.valueTextColor;
+
+        valueBasedOverlay = base.valueBasedOverlay;
+        valueThresholds = base.valueThresholds;
+        valueColors = base.valueColors;
+        overlayColors = base.overlayColors;
+        headerColors = base.headerColors;
+
+        adaptiveQuality = base.adaptiveQuality;
+        frameBudget = base.frameBudget;
+        qualityRecoveryThreshold = base.qualityRecoveryThreshold;
+
+        showDebugStats = base.showDebugStats;
+        recordLootJournal = base.recordLootJournal;
+    }
+
+    /**
+     * Reads every setting from the config.
+     * @param config The config to snapshot
+     * @return new snapshot
+     */
+    static LootHudSettings from(LootHudConfig config)
+    {
+        return new LootHudSettings(config);
+    }
+
+    /**
+     * Gets a copy of these settings with the effects a quality tier drops turned off.
+     * @param tier Quality tier to draw at
+     * @return these settings at full quality, a new snapshot otherwise
+     */
+    LootHudSettings withQuality(QualityGovernor.Tier tier)
+    {
+        return tier == QualityGovernor.Tier.FULL ? this : new LootHudSettings(this, tier);
+    }
+
+    /**
+     * Gets the color for an item based on its value and configured thresholds.
+     * @param itemValue The value of the item
+     * @return The appropriate color for this item value
+     */
+    Color getItemValueColor(long itemValue)
+    {
+        return getItemTierColor(getValueTier(itemValue));
+    }
+
+    /**
+     * Gets the item name color of a value tier.
+     * @param tier Value tier, see {@link #getValueTier}
+     * @return The color for items of this tier
+     */
+    Color getItemTierColor(int tier)
+    {
+        return tier >= 0 ? valueColors[tier] : itemNameColor;
+    }
+
+    /**
+     * Gets the overlay color based on total value and configured thresholds.
+     * @param totalValue The total value of the loot entry
+     * @return The appropriate overlay color for this total value
+     */
+    Color getOverlayValueColor(long totalValue)
+    {
+        int tier = getValueTier(totalValue);
+        return tier >= 0 ? overlayColors[tier] : backgroundColor;
+    }
+
+    /**
+     * Gets the header overlay color based on total value and configured thresholds.
+     * @param totalValue The total value of the loot entry
+     * @return The appropriate header overlay color for this total value
+     */
+    Color getHeaderValueColor(long totalValue)
+    {
+        int tier = getValueTier(totalValue);
+        return tier >= 0 ? headerColors[tier] : headerBackgroundColor;
+    }
+
+    /**
+     * Gets the value tier of a value.
+     * @param value Value in gp
+     * @return index of the highest threshold the value reaches, or -1 if it's below all of them
+     */
+    int getValueTier(long value)
+    {
+        for (int i = valueThresholds.length - 1; i >= 0; i--)
+        {
+            if (value >= valueThresholds[i])
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Color headerColorFor(Color baseColor)
+    {
+        if (baseColor.equals(backgroundColor))
+        {
+            return headerBackgroundColor;
+        }
+
+        // For header, use a slightly darker version of the overlay color
+        return new Color(
+                Math.max(0, baseColor.getRed() - 40),
+                Math.max(0, baseColor.getGreen() - 40),
+                Math.max(0, baseColor.getBlue() - 40),
+                baseColor.getAlpha()
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package com.LootHUD;
+
+import javax.inject.Singleton;
+
+/**
+ * Timings and counters of the plugin, recorded while the debug stats setting is on.
+ * Callers check the setting before sampling the time, so turning it off leaves a single
+ * field read on each instrumented path. Recording never allocates.
+ * Only used from the client thread.
+ */
+@Singleton
+class LootHudStats
+{
+    // Time spent in LootHudOverlay.render, excluding the stats section itself
+    final LatencyHistogram frameTimes = new LatencyHistogram();
+    // Time spent filtering and pricing a loot event when it's received
+    final LatencyHistogram lootTimes = new LatencyHistogram();
+    // Time spent applying the loot of one game tick
+    final LatencyHistogram batchTimes = new LatencyHistogram();
+    // Time from receiving loot to it being shown
+    final LatencyHistogram ingestionLatency = new LatencyHistogram();
+
+    long eventsReceived;
+    // Dropped by the loot type, ignored source, ignored item or minimum value filters
+    long eventsFiltered;
+    long eventsDeduplicated;
+    long eventsDisplayed;
+
+    void reset()
+    {
+        frameTimes.reset();
+        lootTimes.reset();
+        batchTimes.reset();
+        ingestionLatency.reset();
+        eventsReceived = 0;
+        eventsFiltered = 0;
+        eventsDeduplicated = 0;
+        eventsDisplayed = 0;
+    }
+
+    /**
+     * Formats the stats as lines for the debug overlay section.
+     * @return one line per histogram and one with the counters
+     */
+    String[] toLines()
+    {
+        return new String[]{
+                formatMicros("Frame", frameTimes),
+                formatMicros("Loot", lootTimes),
+                formatMicros("Tick", batchTimes),
+                String.format("Shown after: p50 %d ms, p99 %d ms, max %d ms",
+                        ingestionLatency.getPercentile(50) / 1_000_000,
+                        ingestionLatency.getPercentile(99) / 1_000_000,
+                        ingestionLatency.getMax() / 1_000_000),
+                String.format("Events: %d received, %d filtered, %d duplicate, %d shown",
+                        eventsReceived, eventsFiltered, eventsDeduplicated, eventsDisplayed)
+        };
+    }
+
+    /**
+     * Formats the stats for the log.
+     * @return the stats on one line each
+     */
+    String summary()
+    {
+        return String.join("\n", toLines());
+    }
+
+    private static String formatMicros(String name, LatencyHistogram histogram)
+    {
+        return String.format("%s: p50 %d us, p99 %d us, max %d us, mean %d us (%d)",
+                name,
+                histogram.getPercentile(50) / 1_000,
+                histogram.getPercentile(99) / 1_000,
+                histogram.getMax() / 1_000,
+                histogram.getMean() / 1_000,
+                histogram.getCount());
+    }
+}
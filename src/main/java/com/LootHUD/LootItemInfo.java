@@ -0,0 +1,76 @@
+package com.LootHUD;
+
+/**
+ * Display data for the items of a loot entry, in the same order as its items:
+ * whether each item is rare, its value tier and its label.
+ * Computed by the plugin when the entry is created, so the overlay never matches
+ * patterns, looks up prices or builds labels while drawing.
+ */
+class LootItemInfo
+{
+    static final LootItemInfo EMPTY = new LootItemInfo(new byte[0], new String[0]);
+
+    // Flag bits, the low bits hold the value tier + 1 so 0 means no tier
+    static final int RARE = 0x80;
+    static final int SHOW_QUANTITY = 0x40;
+    private static final int TIER_MASK = 0x0F;
+
+    private final byte[] flags;
+    // Null where the item has no composition, such items are drawn without a name
+    private final String[] labels;
+
+    /**
+     * @param flags Combination of {@link #RARE}, {@link #SHOW_QUANTITY} and the value tier + 1, per item
+     * @param labels Label per item, null if the item has no name to show
+     */
+    LootItemInfo(byte[] flags, String[] labels)
+    {
+        this.flags = flags;
+        this.labels = labels;
+    }
+
+    /**
+     * Packs the flags of one item.
+     * @param rare Whether the item matches a rare item pattern
+     * @param showQuantity Whether the icon shows the stack size
+     * @param valueTier Value tier of the stack, -1 if it's below all thresholds
+     * @return packed flags
+     */
+    static byte pack(boolean rare, boolean showQuantity, int valueTier)
+    {
+        return (byte) ((rare ? RARE : 0) | (showQuantity ? SHOW_QUANTITY : 0) | ((valueTier + 1) & TIER_MASK));
+    }
+
+    int size()
+    {
+        return flags.length;
+    }
+
+    boolean isRare(int index)
+    {
+        return index < flags.length && (flags[index] & RARE) != 0;
+    }
+
+    boolean isQuantityShown(int index)
+    {
+        return index < flags.length && (flags[index] & SHOW_QUANTITY) != 0;
+    }
+
+    /**
+     * @param index Item index
+     * @return value tier of the item, -1 if it's below all thresholds
+     */
+    int getValueTier(int index)
+    {
+        return index < flags.length ? (flags[index] & TIER_MASK) - 1 : -1;
+    }
+
+    /**
+     * @param index Item index
+     * @return label of the item, null if the item has no name to show
+     */
+    String getLabel(int index)
+    {
+        return index < labels.length ? labels[index] : null;
+    }
+}
@@ -0,0 +1,161 @@
+package com.LootHUD;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.client.game.ItemStack;
+import net.runelite.client.plugins.loottracker.LootReceived;
+
+/**
+ * Appends loot events to a journal file, so real sessions can be replayed through the
+ * plugin with {@link LootJournalReader}.
+ * The format is a header followed by one record per event. Numbers are variable length,
+ * times and game ticks are stored as the difference to the previous record, and each
+ * source name and loot type is written once, later records refer to it by index.
+ * Every record is flushed, so a journal stays readable up to the last event if the client
+ * closes without stopping the recording.
+ * Creating, writing and closing a journal block on the file, so the plugin does all three on
+ * RuneLite's single threaded executor, never on the client thread.
+ */
+class LootJournal implements Closeable
+{
+    static final int MAGIC = 0x4C484A31; // "LHJ1"
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    // Index of every string written so far, 0 stands for null
+    private final Map<String, Integer> strings = new HashMap<>();
+    private long lastTick;
+    private long lastMillis;
+    private boolean empty = true;
+
+    private LootJournal(DataOutputStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Creates a journal, replacing any file with the same name.
+     * @param file File to write
+     * @return journal ready for records
+     * @throws IOException if the file can't be created
+     */
+    static LootJournal create(File file) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.flush();
+        }
+        catch (IOException e)
+        {
+            out.close();
+            throw e;
+        }
+        return new LootJournal(out);
+    }
+
+    /**
+     * Appends a loot event.
+     * @param tick Game tick the event arrived on
+     * @param millis Time the event arrived, from {@link LootHudClock}
+     * @param event Loot event
+     * @throws IOException if the record can't be written
+     */
+    void append(long tick, long millis, LootReceived event) throws IOException
+    {
+        if (empty)
+        {
+            lastTick = tick;
+            lastMillis = millis;
+            empty = false;
+        }
+
+        writeVarLong(out, Math.max(0, tick - lastTick));
+        writeVarLong(out, Math.max(0, millis - lastMillis));
+        lastTick = tick;
+        lastMillis = millis;
+
+        writeString(event.getName());
+        writeString(event.getType() == null ? null : event.getType().name());
+        writeVarLong(out, event.getCombatLevel() & 0xFFFFFFFFL);
+        writeVarLong(out, event.getAmount() & 0xFFFFFFFFL);
+
+        writeVarLong(out, event.getItems().size());
+        for (ItemStack item : event.getItems())
+        {
+            writeVarLong(out, item.getId() & 0xFFFFFFFFL);
+            writeVarLong(out, item.getQuantity() & 0xFFFFFFFFL);
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        out.close();
+    }
+
+    private void writeString(String value) throws IOException
+    {
+        if (value == null)
+        {
+            writeVarLong(out, 0);
+            return;
+        }
+
+        Integer index = strings.get(value);
+        if (index != null)
+        {
+            writeVarLong(out, index);
+            return;
+        }
+
+        // A new string gets the next index and follows it
+        index = strings.size() + 1;
+        strings.put(value, index);
+        writeVarLong(out, index);
+        out.writeUTF(value);
+    }
+
+    /**
+     * Writes a non-negative number in 7 bit groups, low bits first.
+     */
+    static void writeVarLong(DataOutput out, long value) throws IOException
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a number written by {@link #writeVarLong}.
+     */
+    static long readVarLong(DataInput in) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in loot journal");
+    }
+}
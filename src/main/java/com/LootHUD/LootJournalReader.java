@@ -0,0 +1,150 @@
+package com.LootHUD;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.client.game.ItemStack;
+import net.runelite.client.plugins.loottracker.LootReceived;
+import net.runelite.http.api.loottracker.LootRecordType;
+
+/**
+ * Reads the loot events of a journal written by {@link LootJournal}, in the order they
+ * were recorded.
+ */
+class LootJournalReader implements Closeable
+{
+    /**
+     * A recorded loot event with when it arrived, relative to the first event of the journal.
+     */
+    static class Record
+    {
+        final long tick;
+        final long millis;
+        final LootReceived event;
+
+        Record(long tick, long millis, LootReceived event)
+        {
+            this.tick = tick;
+            this.millis = millis;
+            this.event = event;
+        }
+    }
+
+    private final DataInputStream in;
+    private final long startTime;
+    // Strings in the order they were first written, index 0 is null
+    private final List<String> strings = new ArrayList<>();
+    private long tick;
+    private long millis;
+
+    private LootJournalReader(DataInputStream in, long startTime)
+    {
+        this.in = in;
+        this.startTime = startTime;
+        strings.add(null);
+    }
+
+    /**
+     * Opens a journal and checks its header.
+     * @param file Journal file
+     * @return reader positioned at the first record
+     * @throws IOException if the file can't be read or isn't a journal
+     */
+    static LootJournalReader open(File file) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try
+        {
+            if (in.readInt() != LootJournal.MAGIC)
+            {
+                throw new IOException("Not a loot journal: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != LootJournal.VERSION)
+            {
+                throw new IOException("Unsupported loot journal version " + version + ": " + file);
+            }
+            return new LootJournalReader(in, in.readLong());
+        }
+        catch (IOException e)
+        {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return wall clock time the recording started, in epoch milliseconds
+     */
+    long getStartTime()
+    {
+        return startTime;
+    }
+
+    /**
+     * Reads the next record.
+     * @return the record, or null at the end of the journal
+     * @throws IOException if the journal can't be read or a record is cut off
+     */
+    Record next() throws IOException
+    {
+        long tickDelta;
+        try
+        {
+            tickDelta = LootJournal.readVarLong(in);
+        }
+        catch (EOFException e)
+        {
+            return null;
+        }
+
+        tick += tickDelta;
+        millis += LootJournal.readVarLong(in);
+
+        String name = readString();
+        String typeName = readString();
+        LootRecordType type = typeName == null ? null : LootRecordType.valueOf(typeName);
+        int combatLevel = (int) LootJournal.readVarLong(in);
+        int amount = (int) LootJournal.readVarLong(in);
+
+        int itemCount = (int) LootJournal.readVarLong(in);
+        List<ItemStack> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++)
+        {
+            int id = (int) LootJournal.readVarLong(in);
+            int quantity = (int) LootJournal.readVarLong(in);
+            items.add(new ItemStack(id, quantity));
+        }
+
+        return new Record(tick, millis, new LootReceived(name, combatLevel, type, items, amount));
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    private String readString() throws IOException
+    {
+        int index = (int) LootJournal.readVarLong(in);
+        if (index < strings.size())
+        {
+            return strings.get(index);
+        }
+        if (index != strings.size())
+        {
+            throw new IOException("Malformed string reference in loot journal");
+        }
+
+        String value = in.readUTF();
+        strings.add(value);
+        return value;
+    }
+}
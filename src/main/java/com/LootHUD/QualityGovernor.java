@@ -0,0 +1,190 @@
+package com.LootHUD;
+
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks the quality tier the overlay draws at from its own frame times, while the adaptive
+ * quality setting is on. Frame times are averaged over windows of frames; a window over the
+ * frame budget drops to the next tier. The governor remembers what the frames cost just before
+ * and just after each drop, and brings the previous tier back only once several windows in a row
+ * predict it would stay under the recovery threshold. Frame times at a cheaper tier alone say
+ * little, reused composites make them a fraction of what the better tier costs, so judging them
+ * directly would step up and back down over and over. Each frame counts for at most a few
+ * budgets, so a single slow frame, like a GC pause or one rebuilding sprites, can't tip a window
+ * on its own.
+ * The overlay draws with {@link #apply}'s settings, a new snapshot per tier, so the sprites and
+ * layouts cached for the old settings are rebuilt once the tier changes.
+ * Only used from the client thread.
+ */
+@Slf4j
+class QualityGovernor
+{
+    /**
+     * Quality tiers from best to cheapest. Every tier also drops what the ones before it did.
+     */
+    enum Tier
+    {
+        FULL,
+        NO_GRADIENT,
+        NO_ANIMATION,
+        NO_ENTRY_ALPHA,
+        ICONS_ONLY
+    }
+
+    // values() copies the array every call
+    private static final Tier[] TIERS = Tier.values();
+
+    // Frames averaged before the tier is reconsidered
+    static final int WINDOW_FRAMES = 60;
+    // Windows in a row with headroom before the previous tier comes back
+    static final int RECOVERY_WINDOWS = 5;
+    // Longest a single frame counts for, in frame budgets
+    private static final int MAX_FRAME_BUDGETS = 4;
+
+    private Tier tier = Tier.FULL;
+    private long windowNanos;
+    private int windowFrames;
+    private int headroomWindows;
+
+    // Mean frame time at the tier above each tier in the window that dropped to it,
+    // and at the tier itself in the window after, 0 until measured
+    private final long[] costBeforeDrop = new long[TIERS.length];
+    private final long[] costAfterDrop = new long[TIERS.length];
+    private boolean measuringDrop;
+
+    private LootHudSettings base;
+    private LootHudSettings effective;
+
+    /**
+     * Gets the settings to draw a frame with.
+     * @param settings Current settings
+     * @return the settings reduced to the current tier, or unchanged when adaptive quality is off
+     */
+    LootHudSettings apply(LootHudSettings settings)
+    {
+        if (!settings.adaptiveQuality)
+        {
+            if (tier != Tier.FULL || base != null)
+            {
+                reset();
+            }
+            return settings;
+        }
+
+        if (settings != base)
+        {
+            // New thresholds or effects, judge them from a fresh window. The costs of the
+            // drops so far are kept, they'd rarely change enough to matter
+            base = settings;
+            effective = settings.withQuality(tier);
+            resetWindow();
+            headroomWindows = 0;
+        }
+        return effective;
+    }
+
+    /**
+     * Records the time a frame with entries took to draw.
+     * @param nanos Duration of the frame
+     * @return whether the tier changed, the next frame draws with different settings
+     */
+    boolean record(long nanos)
+    {
+        if (base == null)
+        {
+            return false;
+        }
+
+        long budget = base.frameBudget * 1_000L;
+        windowNanos += Math.min(nanos, budget * MAX_FRAME_BUDGETS);
+        if (++windowFrames < WINDOW_FRAMES)
+        {
+            return false;
+        }
+
+        long mean = windowNanos / windowFrames;
+        resetWindow();
+        if (measuringDrop)
+        {
+            costAfterDrop[tier.ordinal()] = Math.max(1, mean);
+            measuringDrop = false;
+        }
+
+        if (mean > budget)
+        {
+            headroomWindows = 0;
+            if (tier.ordinal() == TIERS.length - 1)
+            {
+                return false;
+            }
+            costBeforeDrop[tier.ordinal() + 1] = mean;
+            measuringDrop = true;
+            return setTier(TIERS[tier.ordinal() + 1], mean);
+        }
+
+        if (tier != Tier.FULL && predictCostAbove(mean) < budget * base.qualityRecoveryThreshold / 100)
+        {
+            // Stepping up costs a sprite rebuild and may go over budget again, so wait for steady headroom
+            if (++headroomWindows >= RECOVERY_WINDOWS)
+            {
+                headroomWindows = 0;
+                return setTier(TIERS[tier.ordinal() - 1], mean);
+            }
+            return false;
+        }
+
+        headroomWindows = 0;
+        return false;
+    }
+
+    /**
+     * Predicts the mean frame time at the tier above the current one, scaling the current mean
+     * by how much the drop from there saved.
+     * @param mean Mean frame time at the current tier
+     * @return predicted mean frame time, Long.MAX_VALUE if the drop wasn't measured yet
+     */
+    private long predictCostAbove(long mean)
+    {
+        int current = tier.ordinal();
+        if (costAfterDrop[current] == 0)
+        {
+            return Long.MAX_VALUE;
+        }
+        return mean * costBeforeDrop[current] / costAfterDrop[current];
+    }
+
+    Tier getTier()
+    {
+        return tier;
+    }
+
+    /**
+     * Goes back to full quality and forgets the frame times.
+     */
+    void reset()
+    {
+        tier = Tier.FULL;
+        base = null;
+        effective = null;
+        headroomWindows = 0;
+        resetWindow();
+        Arrays.fill(costBeforeDrop, 0);
+        Arrays.fill(costAfterDrop, 0);
+        measuringDrop = false;
+    }
+
+    private boolean setTier(Tier tier, long mean)
+    {
+        log.debug("Overlay frames take {} us on average, drawing at {} quality", mean / 1_000, tier);
+        this.tier = tier;
+        effective = base.withQuality(tier);
+        return true;
+    }
+
+    private void resetWindow()
+    {
+        windowNanos = 0;
+        windowFrames = 0;
+    }
+}
@@ -0,0 +1,137 @@
+package com.LootHUD;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Fills rectangles with translucent colors and gradients without allocating.
+ * Java2D fills translucent colors and gradient paints through its general paint pipeline,
+ * which allocates a raster for every fill. Here the pixels are written into a scratch image
+ * and blended with drawImage instead, which gives the same result through the image loops.
+ * Opaque solid fills without an alpha composite go straight to the graphics, they don't allocate.
+ * Only used from the client thread.
+ */
+class TranslucentFill
+{
+    private static final int PAINT_TILE_SIZE = 32;
+
+    private BufferedImage scratch;
+    private int[] pixels;
+    private int scratchWidth;
+    private int scratchHeight;
+
+    /**
+     * Fills a rectangle like {@link Graphics2D#fillRect} with the color set.
+     */
+    void fill(Graphics2D graphics, Color color, int x, int y, int width, int height)
+    {
+        int alpha = color.getAlpha();
+        if (alpha == 255 && graphics.getComposite() == AlphaComposite.SrcOver)
+        {
+            graphics.setColor(color);
+            graphics.fillRect(x, y, width, height);
+            return;
+        }
+        if (alpha == 0 || width <= 0 || height <= 0)
+        {
+            return;
+        }
+
+        ensureCapacity(width, height);
+        int argb = color.getRGB();
+        for (int row = 0; row < height; row++)
+        {
+            int offset = row * scratchWidth;
+            Arrays.fill(pixels, offset, offset + width, argb);
+        }
+        blit(graphics, x, y, width, height);
+    }
+
+    /**
+     * Fills a rectangle like a {@link java.awt.GradientPaint} running from its top edge to its
+     * bottom edge would, interpolating the same way.
+     */
+    void fillVerticalGradient(Graphics2D graphics, Color top, Color bottom, int x, int y, int width, int height)
+    {
+        if (width <= 0 || height <= 0)
+        {
+            return;
+        }
+
+        ensureCapacity(width, height);
+        int rgb1 = top.getRGB();
+        int rgb2 = bottom.getRGB();
+        int a1 = (rgb1 >>> 24), r1 = (rgb1 >> 16) & 0xFF, g1 = (rgb1 >> 8) & 0xFF, b1 = rgb1 & 0xFF;
+        int da = (rgb2 >>> 24) - a1;
+        int dr = ((rgb2 >> 16) & 0xFF) - r1;
+        int dg = ((rgb2 >> 8) & 0xFF) - g1;
+        int db = (rgb2 & 0xFF) - b1;
+
+        // Position along the gradient advances by 1 / height per row, each row takes one of 257 steps.
+        // Java2D paints in tiles of 32 rows, recomputing the position at the top of each one
+        double step = (double) height / ((double) height * height);
+        double position = 0;
+        for (int row = 0; row < height; row++)
+        {
+            if (row % PAINT_TILE_SIZE == 0)
+            {
+                position = row * step;
+            }
+            float rel = (int) (position * 256) / 256.0f;
+            int argb = ((int) (a1 + da * rel) << 24)
+                    | ((int) (r1 + dr * rel) << 16)
+                    | ((int) (g1 + dg * rel) << 8)
+                    | (int) (b1 + db * rel);
+            int offset = row * scratchWidth;
+            Arrays.fill(pixels, offset, offset + width, argb);
+            position += step;
+        }
+        blit(graphics, x, y, width, height);
+    }
+
+    /**
+     * Draws a border inside a rectangle, covering the same pixels as {@link Graphics2D#drawRect}
+     * with a {@link java.awt.BasicStroke} of the border width centered on the inset rectangle.
+     */
+    void drawBorder(Graphics2D graphics, Color color, int x, int y, int width, int height, int borderWidth)
+    {
+        fill(graphics, color, x, y, width, borderWidth);
+        fill(graphics, color, x, y + height - borderWidth, width, borderWidth);
+        fill(graphics, color, x, y + borderWidth, borderWidth, height - 2 * borderWidth);
+        fill(graphics, color, x + width - borderWidth, y + borderWidth, borderWidth, height - 2 * borderWidth);
+    }
+
+    /**
+     * Drops the scratch image.
+     */
+    void clear()
+    {
+        scratch = null;
+        pixels = null;
+        scratchWidth = 0;
+        scratchHeight = 0;
+    }
+
+    private void blit(Graphics2D graphics, int x, int y, int width, int height)
+    {
+        graphics.drawImage(scratch, x, y, x + width, y + height, 0, 0, width, height, null);
+    }
+
+    private void ensureCapacity(int width, int height)
+    {
+        if (width <= scratchWidth && height <= scratchHeight)
+        {
+            return;
+        }
+
+        // Grows to the largest entry seen, so it's allocated only a few times
+        scratchWidth = Math.max(width, scratchWidth);
+        scratchHeight = Math.max(height, scratchHeight);
+        scratch = new BufferedImage(scratchWidth, scratchHeight, BufferedImage.TYPE_INT_ARGB);
+        pixels = ((DataBufferInt) scratch.getRaster().getDataBuffer()).getData();
+    }
+}
@@ -0,0 +1,410 @@
+package com.LootHUD;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A set of wildcard patterns compiled once and evaluated together.
+ * Matches exactly like {@link WildcardMatcher#matches(String, String)} for every
+ * pattern in the set, but the literal segments of all patterns are indexed in a
+ * single Aho-Corasick automaton so a lookup is one pass over the text, no matter
+ * how many patterns are configured.
+ */
+class WildcardPatternSet
+{
+    static final WildcardPatternSet EMPTY = compile(Collections.emptyList());
+
+    private static final int ROOT = 0;
+
+    private final String[] patterns;
+    private final int matchAllIndex;
+
+    // Per pattern
+    private final int[] segmentCount;
+    private final boolean[] exact;
+    private final boolean[] anchoredStart;
+    private final char[][] anchoredEndSegment;
+
+    // Automaton
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    private final int[][] output;
+
+    // Segment occurrences referenced by output
+    private final int[] occurrencePattern;
+    private final int[] occurrenceSegment;
+    private final int[] occurrenceLength;
+
+    private final ThreadLocal<MatchState> matchState;
+
+    private WildcardPatternSet(String[] patterns, int matchAllIndex, int[] segmentCount, boolean[] exact,
+                               boolean[] anchoredStart, char[][] anchoredEndSegment,
+                               char[][] edgeChars, int[][] edgeTargets, int[] fail, int[][] output,
+                               int[] occurrencePattern, int[] occurrenceSegment, int[] occurrenceLength)
+    {
+        this.patterns = patterns;
+        this.matchAllIndex = matchAllIndex;
+        this.segmentCount = segmentCount;
+        this.exact = exact;
+        this.anchoredStart = anchoredStart;
+        this.anchoredEndSegment = anchoredEndSegment;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.output = output;
+        this.occurrencePattern = occurrencePattern;
+        this.occurrenceSegment = occurrenceSegment;
+        this.occurrenceLength = occurrenceLength;
+        this.matchState = ThreadLocal.withInitial(() -> new MatchState(patterns.length));
+    }
+
+    /**
+     * Compiles a collection of wildcard patterns.
+     * @param rawPatterns Patterns with '*' as wildcard, null entries are skipped
+     * @return compiled pattern set
+     */
+    static WildcardPatternSet compile(Collection<String> rawPatterns)
+    {
+        List<String> normalized = new ArrayList<>();
+        for (String raw : rawPatterns)
+        {
+            if (raw != null)
+            {
+                normalized.add(lowerCase(raw.trim()));
+            }
+        }
+
+        int count = normalized.size();
+        String[] patterns = normalized.toArray(new String[0]);
+        int[] segmentCount = new int[count];
+        boolean[] exact = new boolean[count];
+        boolean[] anchoredStart = new boolean[count];
+        char[][] anchoredEndSegment = new char[count][];
+        int matchAllIndex = -1;
+
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        List<List<Integer>> nodeOccurrences = new ArrayList<>();
+        nodeOccurrences.add(new ArrayList<>());
+        List<int[]> occurrences = new ArrayList<>();
+
+        for (int p = 0; p < count; p++)
+        {
+            String pattern = patterns[p];
+            String[] parts = pattern.split("\\*", -1); // -1 to keep empty parts
+            boolean wildcard = parts.length > 1;
+
+            exact[p] = !wildcard;
+            anchoredStart[p] = !parts[0].isEmpty();
+            if (wildcard && !parts[parts.length - 1].isEmpty())
+            {
+                anchoredEndSegment[p] = parts[parts.length - 1].toCharArray();
+            }
+
+            int segment = 0;
+            for (String part : parts)
+            {
+                if (part.isEmpty())
+                {
+                    continue;
+                }
+
+                int node = ROOT;
+                for (int i = 0; i < part.length(); i++)
+                {
+                    Character c = part.charAt(i);
+                    Integer next = trie.get(node).get(c);
+                    if (next == null)
+                    {
+                        next = trie.size();
+                        trie.add(new TreeMap<>());
+                        nodeOccurrences.add(new ArrayList<>());
+                        trie.get(node).put(c, next);
+                    }
+                    node = next;
+                }
+
+                nodeOccurrences.get(node).add(occurrences.size());
+                occurrences.add(new int[]{p, segment, part.length()});
+                segment++;
+            }
+
+            segmentCount[p] = segment;
+
+            // Empty pattern or only wildcards matches everything
+            if (segment == 0 && matchAllIndex == -1)
+            {
+                matchAllIndex = p;
+            }
+        }
+
+        int nodes = trie.size();
+        char[][] edgeChars = new char[nodes][];
+        int[][] edgeTargets = new int[nodes][];
+        for (int n = 0; n < nodes; n++)
+        {
+            Map<Character, Integer> edges = trie.get(n);
+            edgeChars[n] = new char[edges.size()];
+            edgeTargets[n] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet())
+            {
+                edgeChars[n][i] = edge.getKey();
+                edgeTargets[n][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // Breadth-first construction of failure links and merged outputs
+        int[] fail = new int[nodes];
+        int[][] output = new int[nodes][];
+        output[ROOT] = toArray(nodeOccurrences.get(ROOT), null);
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[ROOT])
+        {
+            fail[target] = ROOT;
+            output[target] = toArray(nodeOccurrences.get(target), output[ROOT]);
+            queue.add(target);
+        }
+
+        while (!queue.isEmpty())
+        {
+            int node = queue.poll();
+            for (int i = 0; i < edgeChars[node].length; i++)
+            {
+                char c = edgeChars[node][i];
+                int target = edgeTargets[node][i];
+
+                int f = fail[node];
+                int next;
+                while ((next = findEdge(edgeChars, edgeTargets, f, c)) == -1 && f != ROOT)
+                {
+                    f = fail[f];
+                }
+                fail[target] = next == -1 ? ROOT : next;
+                output[target] = toArray(nodeOccurrences.get(target), output[fail[target]]);
+                queue.add(target);
+            }
+        }
+
+        int[] occurrencePattern = new int[occurrences.size()];
+        int[] occurrenceSegment = new int[occurrences.size()];
+        int[] occurrenceLength = new int[occurrences.size()];
+        for (int i = 0; i < occurrences.size(); i++)
+        {
+            int[] occurrence = occurrences.get(i);
+            occurrencePattern[i] = occurrence[0];
+            occurrenceSegment[i] = occurrence[1];
+            occurrenceLength[i] = occurrence[2];
+        }
+
+        return new WildcardPatternSet(patterns, matchAllIndex, segmentCount, exact, anchoredStart,
+                anchoredEndSegment, edgeChars, edgeTargets, fail, output,
+                occurrencePattern, occurrenceSegment, occurrenceLength);
+    }
+
+    boolean isEmpty()
+    {
+        return patterns.length == 0;
+    }
+
+    int size()
+    {
+        return patterns.length;
+    }
+
+    /**
+     * Checks if the text matches any pattern in the set.
+     * @param text Text to match, compared trimmed and case-insensitively
+     * @return true if at least one pattern matches
+     */
+    boolean matches(String text)
+    {
+        return firstMatch(text) != null;
+    }
+
+    /**
+     * Finds a pattern in the set that matches the text.
+     * @param text Text to match, compared trimmed and case-insensitively
+     * @return the (normalized) matching pattern, or null if none match
+     */
+    String firstMatch(String text)
+    {
+        if (text == null || patterns.length == 0)
+        {
+            return null;
+        }
+
+        if (matchAllIndex != -1)
+        {
+            return patterns[matchAllIndex];
+        }
+
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ')
+        {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ')
+        {
+            end--;
+        }
+        int length = end - start;
+
+        MatchState state = matchState.get();
+        int epoch = state.nextEpoch();
+
+        int node = ROOT;
+        for (int i = start; i < end; i++)
+        {
+            node = step(node, Character.toLowerCase(text.charAt(i)));
+
+            int pos = i - start;
+            for (int occurrence : output[node])
+            {
+                int p = occurrencePattern[occurrence];
+                int segment = occurrenceSegment[occurrence];
+                int segmentStart = pos - occurrenceLength[occurrence] + 1;
+
+                int expected = state.stamp[p] == epoch ? state.next[p] : 0;
+                int minStart = state.stamp[p] == epoch ? state.minStart[p] : 0;
+                if (segment != expected || segmentStart < minStart)
+                {
+                    continue;
+                }
+
+                // Anchored first segment can only ever match at the start
+                if (segment == 0 && anchoredStart[p] && segmentStart != 0)
+                {
+                    continue;
+                }
+
+                expected++;
+                if (expected == segmentCount[p])
+                {
+                    if (exact[p] ? length == occurrenceLength[occurrence] : endsWith(text, start, end, anchoredEndSegment[p]))
+                    {
+                        return patterns[p];
+                    }
+
+                    // All segments were found but the anchored end failed, so this pattern can't match
+                    expected = Integer.MAX_VALUE;
+                }
+
+                state.stamp[p] = epoch;
+                state.next[p] = expected;
+                state.minStart[p] = pos + 1;
+            }
+        }
+
+        return null;
+    }
+
+    private int step(int node, char c)
+    {
+        while (true)
+        {
+            int next = findEdge(edgeChars, edgeTargets, node, c);
+            if (next != -1)
+            {
+                return next;
+            }
+            if (node == ROOT)
+            {
+                return ROOT;
+            }
+            node = fail[node];
+        }
+    }
+
+    private static int findEdge(char[][] edgeChars, int[][] edgeTargets, int node, char c)
+    {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index >= 0 ? edgeTargets[node][index] : -1;
+    }
+
+    private static boolean endsWith(String text, int start, int end, char[] suffix)
+    {
+        if (suffix == null)
+        {
+            return true;
+        }
+
+        int offset = end - suffix.length;
+        if (offset < start)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < suffix.length; i++)
+        {
+            if (Character.toLowerCase(text.charAt(offset + i)) != suffix[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] toArray(List<Integer> own, int[] inherited)
+    {
+        int inheritedLength = inherited == null ? 0 : inherited.length;
+        int[] result = new int[own.size() + inheritedLength];
+        for (int i = 0; i < own.size(); i++)
+        {
+            result[i] = own.get(i);
+        }
+        if (inheritedLength > 0)
+        {
+            System.arraycopy(inherited, 0, result, own.size(), inheritedLength);
+        }
+        return result;
+    }
+
+    private static String lowerCase(String s)
+    {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++)
+        {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Per-thread scratch state, reset lazily by bumping the epoch instead of clearing arrays.
+     */
+    private static class MatchState
+    {
+        private final int[] stamp;
+        private final int[] next;
+        private final int[] minStart;
+        private int epoch;
+
+        MatchState(int patternCount)
+        {
+            stamp = new int[patternCount];
+            next = new int[patternCount];
+            minStart = new int[patternCount];
+        }
+
+        int nextEpoch()
+        {
+            if (++epoch == 0)
+            {
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+            return epoch;
+        }
+    }
+}
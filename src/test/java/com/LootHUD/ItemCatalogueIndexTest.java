@@ -0,0 +1,213 @@
+package com.LootHUD;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.game.ItemStack;
+import net.runelite.client.plugins.loottracker.LootReceived;
+import net.runelite.http.api.loottracker.LootRecordType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Runs catalogue sweeps through the fixture's client ticks and the fork-join pool, checking
+ * that finished sweeps give every item's verdict, that sweeps for outdated patterns are
+ * dropped, and that the plugin still classifies items while a sweep is pending.
+ */
+public class ItemCatalogueIndexTest
+{
+	private static final WildcardPatternSet RARE = WildcardPatternSet.compile(Arrays.asList("dragon*", "*godsword"));
+	private static final WildcardPatternSet NEW_RARE = WildcardPatternSet.compile(Arrays.asList("*hilt", "twisted bow"));
+	private static final WildcardPatternSet IGNORED = WildcardPatternSet.compile(Arrays.asList("*bones", "coins"));
+
+	private final PluginFixture fixture = new PluginFixture(new TestConfig());
+	private final ItemCatalogueIndex index = fixture.createItemCatalogue();
+
+	@Test
+	public void finishedSweepGivesEveryVerdict()
+	{
+		index.rebuild(RARE, IGNORED);
+		fixture.finishClientTasks();
+
+		assertVerdicts(RARE, IGNORED);
+		assertEquals(ItemClassificationCache.UNKNOWN, index.get(PluginFixture.ITEM_COUNT, RARE, IGNORED));
+		// Published verdicts only answer for the patterns they were built from
+		assertEquals(ItemClassificationCache.UNKNOWN, index.get(PluginFixture.FIRST_ITEM_ID, NEW_RARE, IGNORED));
+	}
+
+	@Test
+	public void pendingSweepIsUnknown()
+	{
+		index.rebuild(RARE, IGNORED);
+		assertEquals(ItemClassificationCache.UNKNOWN, index.get(PluginFixture.FIRST_ITEM_ID, RARE, IGNORED));
+
+		// The catalogue takes two client ticks to collect names from
+		fixture.runClientTasks();
+		assertEquals(ItemClassificationCache.UNKNOWN, index.get(PluginFixture.FIRST_ITEM_ID, RARE, IGNORED));
+
+		fixture.finishClientTasks();
+		assertVerdicts(RARE, IGNORED);
+	}
+
+	@Test
+	public void sweepOutdatedWhileCollectingNamesIsDropped()
+	{
+		index.rebuild(RARE, IGNORED);
+		fixture.runClientTasks();
+		index.rebuild(NEW_RARE, IGNORED);
+		// The first sweep would have collected its last names in this tick
+		fixture.runClientTasks();
+		awaitForkJoinPool();
+		assertEquals(ItemClassificationCache.UNKNOWN, index.get(PluginFixture.FIRST_ITEM_ID, RARE, IGNORED));
+
+		fixture.finishClientTasks();
+		assertVerdicts(NEW_RARE, IGNORED);
+	}
+
+	@Test
+	public void sweepOutdatedWhileMatchingIsDropped() throws InterruptedException
+	{
+		CountDownLatch release = holdForkJoinPool();
+		try
+		{
+			index.rebuild(RARE, IGNORED);
+			while (fixture.hasClientTasks())
+			{
+				fixture.runClientTasks();
+			}
+			// All names are collected, matching them waits for a free worker
+			index.rebuild(NEW_RARE, IGNORED);
+		}
+		finally
+		{
+			release.countDown();
+		}
+		awaitForkJoinPool();
+		assertEquals(ItemClassificationCache.UNKNOWN, index.get(PluginFixture.FIRST_ITEM_ID, RARE, IGNORED));
+
+		fixture.finishClientTasks();
+		assertVerdicts(NEW_RARE, IGNORED);
+	}
+
+	@Test
+	public void clearedSweepIsDropped()
+	{
+		index.rebuild(RARE, IGNORED);
+		fixture.runClientTasks();
+		index.clear();
+		fixture.finishClientTasks();
+		assertEquals(ItemClassificationCache.UNKNOWN, index.get(PluginFixture.FIRST_ITEM_ID, RARE, IGNORED));
+	}
+
+	@Test
+	public void pluginClassifiesItemsWhileSweepIsPending()
+	{
+		LootHudPlugin plugin = fixture.getPlugin();
+
+		// The sweep queued on startup hasn't run, items are matched by name and cached per ID
+		for (int round = 0; round < 2; round++)
+		{
+			fixture.advance(600);
+			fixture.receive(loot(round));
+			assertRareFlags(plugin.getRecentLoot().get(0));
+		}
+
+		fixture.finishClientTasks();
+		fixture.advance(600);
+		fixture.receive(loot(2));
+		assertRareFlags(plugin.getRecentLoot().get(0));
+	}
+
+	/**
+	 * Builds loot with every item of the fixture's catalogue, bones and coins are ignored.
+	 */
+	private static LootReceived loot(int n)
+	{
+		ItemStack[] items = new ItemStack[PluginFixture.ITEM_NAMES.length];
+		for (int i = 0; i < items.length; i++)
+		{
+			items[i] = new ItemStack(PluginFixture.FIRST_ITEM_ID + i, n + 1);
+		}
+		return new LootReceived("Vorkath " + n, 100, LootRecordType.NPC, Arrays.asList(items), 1);
+	}
+
+	private static void assertRareFlags(LootHudEntry entry)
+	{
+		List<ItemStack> items = entry.getItems();
+		assertTrue("Ignored items were kept", items.size() < PluginFixture.ITEM_NAMES.length);
+		for (int i = 0; i < items.size(); i++)
+		{
+			String name = PluginFixture.itemName(items.get(i).getId());
+			assertFalse(name, IGNORED.matches(name));
+			assertEquals(name, RARE.matches(name), entry.getItemInfo().isRare(i));
+		}
+	}
+
+	/**
+	 * Keeps every worker of the common fork-join pool busy until the returned latch is
+	 * counted down, so sweeps handed to the pool wait.
+	 */
+	private static CountDownLatch holdForkJoinPool() throws InterruptedException
+	{
+		int workers = ForkJoinPool.getCommonPoolParallelism();
+		CountDownLatch started = new CountDownLatch(workers);
+		CountDownLatch release = new CountDownLatch(1);
+		for (int i = 0; i < workers; i++)
+		{
+			ForkJoinPool.commonPool().execute(() -> {
+				started.countDown();
+				try
+				{
+					release.await();
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		started.await();
+		return release;
+	}
+
+	private static void awaitForkJoinPool()
+	{
+		assertTrue(ForkJoinPool.commonPool().awaitQuiescence(10, TimeUnit.SECONDS));
+	}
+
+	private void assertVerdicts(WildcardPatternSet rare, WildcardPatternSet ignored)
+	{
+		for (int id = 0; id < PluginFixture.ITEM_COUNT; id++)
+		{
+			String name = PluginFixture.itemName(id);
+			int expected = (rare.matches(name) ? ItemClassificationCache.RARE : 0)
+				| (ignored.matches(name) ? ItemClassificationCache.IGNORED : 0);
+			assertEquals(name + " (" + id + ")", expected, index.get(id, rare, ignored));
+		}
+	}
+
+	private static class TestConfig implements LootHudConfig
+	{
+		@Override
+		public String rareItemNames()
+		{
+			return "dragon*, *godsword";
+		}
+
+		@Override
+		public String ignoredItemNames()
+		{
+			return "*bones, coins";
+		}
+
+		@Override
+		public int minValueToShow()
+		{
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,336 @@
+package com.LootHUD;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.sun.management.ThreadMXBean;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.client.game.ItemStack;
+import net.runelite.client.plugins.loottracker.LootReceived;
+import net.runelite.client.ui.FontManager;
+import net.runelite.http.api.loottracker.LootRecordType;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms up the overlay and the ingestion path until the JIT has settled, then checks how
+ * many bytes a frame and a loot event allocate, as read from the thread MX bean.
+ * Frames only draw cached sprites and pooled colors, so they shouldn't allocate at all.
+ * Events build an entry, some allocation there is expected, but it shouldn't grow.
+ * The plugin's logging is off, logback-test.xml would log it at debug to the console and a file.
+ */
+public class LootHudAllocationTest
+{
+	private static final int MAX_NOTIFICATIONS = 5;
+	private static final long FRAME_MILLIS = 20;
+	private static final long TICK_MILLIS = 600;
+
+	private static final int WARMUP_FRAMES = 20_000;
+	private static final int MEASURED_FRAMES = 5_000;
+	// Frames between loot events while entries expire, entries live for DISPLAY_SECONDS
+	private static final int FRAMES_PER_EVENT = 25;
+	private static final int DISPLAY_SECONDS = 2;
+	private static final int WARMUP_EVENTS = 20_000;
+	private static final int MEASURED_EVENTS = 5_000;
+	// Distinct items collected from one source before grouped events are measured
+	private static final int FEW_GROUPED_ITEMS = 50;
+	private static final int MANY_GROUPED_ITEMS = 500;
+
+	// Mean bytes per frame. Not quite zero, Java2D allocates a few small rectangles
+	// when blitting images that escape analysis doesn't always remove
+	private static final long FRAME_BUDGET = 128;
+	// Mean bytes per event and its game tick: the entry, its item info and labels, the published
+	// snapshot and expiring an older entry, about 2.2 KB
+	private static final long EVENT_BUDGET = 2_560;
+	// Extra mean bytes per event for each item a group already holds. The item list and the item
+	// info handed to the overlay are copied on every refresh, about 10 bytes per item
+	private static final long GROUPED_ITEM_BUDGET = 32;
+
+	private static Logger pluginLogger;
+	private static Level pluginLogLevel;
+
+	private ThreadMXBean threads;
+
+	@BeforeClass
+	public static void silencePluginLog()
+	{
+		pluginLogger = (Logger) LoggerFactory.getLogger("com.LootHUD");
+		pluginLogLevel = pluginLogger.getLevel();
+		pluginLogger.setLevel(Level.OFF);
+	}
+
+	@AfterClass
+	public static void restorePluginLog()
+	{
+		pluginLogger.setLevel(pluginLogLevel);
+	}
+
+	@Before
+	public void before()
+	{
+		System.setProperty("java.awt.headless", "true");
+		threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	@Test
+	public void framesDontAllocate()
+	{
+		for (LootHudConfig.RareItemHighlight highlight : LootHudConfig.RareItemHighlight.values())
+		{
+			long perFrame = frameBytes(new TestConfig(highlight, true, false), true);
+			assertTrue(highlight.name() + " frames allocate " + perFrame + " bytes", perFrame <= FRAME_BUDGET);
+		}
+	}
+
+	@Test
+	public void fadingFramesDontAllocate()
+	{
+		for (LootHudConfig.RareItemHighlight highlight : LootHudConfig.RareItemHighlight.values())
+		{
+			long perFrame = frameBytes(new TestConfig(highlight, false, false), true);
+			assertTrue(highlight.name() + " fading frames allocate " + perFrame + " bytes", perFrame <= FRAME_BUDGET);
+		}
+	}
+
+	@Test
+	public void framesWithLoadingIconsDontAllocate()
+	{
+		long perFrame = frameBytes(new TestConfig(LootHudConfig.RareItemHighlight.STATIC, false, false), false);
+		assertTrue("frames with loading icons allocate " + perFrame + " bytes", perFrame <= FRAME_BUDGET);
+	}
+
+	/**
+	 * Renders frames of a HUD with five entries to start with. Unless the overlay is always shown, loot keeps arriving
+	 * while older entries expire, so there are always entries fading out. Frames right after
+	 * a loot event build the new entry's layout and sprite, they are part of the event's cost
+	 * and aren't counted.
+	 * @param iconsLoaded Whether item icons are loaded, or stay loading for the whole run
+	 * @return mean bytes allocated per counted frame
+	 */
+	private long frameBytes(TestConfig config, boolean iconsLoaded)
+	{
+		PluginFixture fixture = new PluginFixture(config, iconsLoaded);
+		LootHudPlugin plugin = fixture.getPlugin();
+		LootHudOverlay overlay = fixture.getOverlay();
+		for (int i = 0; i < MAX_NOTIFICATIONS; i++)
+		{
+			fixture.receive(PluginFixture.loot(i));
+		}
+
+		BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setFont(FontManager.getRunescapeFont());
+		BeforeRender beforeRender = new BeforeRender();
+		long threadId = Thread.currentThread().getId();
+
+		long allocated = 0;
+		int measured = 0;
+		int events = MAX_NOTIFICATIONS;
+		for (int frame = 0; frame < WARMUP_FRAMES + MEASURED_FRAMES; frame++)
+		{
+			fixture.advance(FRAME_MILLIS);
+			boolean newLoot = !config.alwaysShow && frame % FRAMES_PER_EVENT == 0;
+			if (newLoot)
+			{
+				fixture.receive(PluginFixture.loot(events++));
+			}
+			plugin.onBeforeRender(beforeRender);
+
+			long before = threads.getThreadAllocatedBytes(threadId);
+			overlay.render(graphics);
+			if (frame >= WARMUP_FRAMES && !newLoot)
+			{
+				allocated += threads.getThreadAllocatedBytes(threadId) - before;
+				measured++;
+			}
+		}
+		graphics.dispose();
+		plugin.shutDown();
+
+		return allocated / measured;
+	}
+
+	@Test
+	public void eventsStayWithinBudget()
+	{
+		PluginFixture fixture = new PluginFixture(new TestConfig(LootHudConfig.RareItemHighlight.STATIC, false, false));
+		LootHudPlugin plugin = fixture.getPlugin();
+		long threadId = Thread.currentThread().getId();
+
+		// Events are built up front, so only the plugin's own allocation is measured
+		LootReceived[] events = new LootReceived[MEASURED_EVENTS];
+		for (int i = 0; i < WARMUP_EVENTS; i++)
+		{
+			fixture.advance(TICK_MILLIS);
+			fixture.receive(PluginFixture.loot(i));
+		}
+		for (int i = 0; i < MEASURED_EVENTS; i++)
+		{
+			events[i] = PluginFixture.loot(WARMUP_EVENTS + i);
+		}
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (LootReceived event : events)
+		{
+			fixture.advance(TICK_MILLIS);
+			fixture.receive(event);
+		}
+		long perEvent = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_EVENTS;
+		plugin.shutDown();
+
+		assertTrue("events allocate " + perEvent + " bytes", perEvent <= EVENT_BUDGET);
+	}
+
+	@Test
+	public void groupedEventsDontGrowWithCollectedItems()
+	{
+		long few = groupedEventBytes(FEW_GROUPED_ITEMS);
+		long many = groupedEventBytes(MANY_GROUPED_ITEMS);
+
+		long perItem = (many - few) / (MANY_GROUPED_ITEMS - FEW_GROUPED_ITEMS);
+		assertTrue("grouped events allocate " + perItem + " more bytes per collected item", perItem <= GROUPED_ITEM_BUDGET);
+	}
+
+	/**
+	 * Collects distinct items from one source with grouping on, then measures events that only
+	 * add to the quantity of one of them.
+	 * @return mean bytes allocated per event and its game tick
+	 */
+	private long groupedEventBytes(int distinctItems)
+	{
+		PluginFixture fixture = new PluginFixture(new TestConfig(LootHudConfig.RareItemHighlight.STATIC, false, true));
+		LootHudPlugin plugin = fixture.getPlugin();
+		long threadId = Thread.currentThread().getId();
+
+		for (int i = 0; i < distinctItems; i++)
+		{
+			fixture.advance(TICK_MILLIS);
+			fixture.receive(groupedLoot(PluginFixture.FIRST_ITEM_ID + i, 1));
+		}
+		for (int i = 0; i < WARMUP_EVENTS; i++)
+		{
+			fixture.advance(TICK_MILLIS);
+			fixture.receive(groupedLoot(PluginFixture.FIRST_ITEM_ID, 1 + i % 1000));
+		}
+
+		LootReceived[] events = new LootReceived[MEASURED_EVENTS];
+		for (int i = 0; i < MEASURED_EVENTS; i++)
+		{
+			events[i] = groupedLoot(PluginFixture.FIRST_ITEM_ID, 1 + i % 1000);
+		}
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (LootReceived event : events)
+		{
+			fixture.advance(TICK_MILLIS);
+			fixture.receive(event);
+		}
+		long perEvent = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_EVENTS;
+		plugin.shutDown();
+		return perEvent;
+	}
+
+	private static LootReceived groupedLoot(int itemId, int quantity)
+	{
+		return new LootReceived("Vorkath", 100, LootRecordType.NPC,
+			Collections.singletonList(new ItemStack(itemId, quantity)), 1);
+	}
+
+	private static class TestConfig implements LootHudConfig
+	{
+		private final RareItemHighlight highlight;
+		private final boolean alwaysShow;
+		private final boolean groupLoot;
+
+		TestConfig(RareItemHighlight highlight, boolean alwaysShow, boolean groupLoot)
+		{
+			this.highlight = highlight;
+			this.alwaysShow = alwaysShow;
+			this.groupLoot = groupLoot;
+		}
+
+		@Override
+		public int maxNotifications()
+		{
+			return MAX_NOTIFICATIONS;
+		}
+
+		@Override
+		public boolean alwaysShowOverlay()
+		{
+			return alwaysShow;
+		}
+
+		@Override
+		public boolean groupLoot()
+		{
+			return groupLoot;
+		}
+
+		// Entries expire before the next few arrive, so some are always fading out
+		@Override
+		public int displayDuration()
+		{
+			return DISPLAY_SECONDS;
+		}
+
+		@Override
+		public boolean fadeOutAnimation()
+		{
+			return true;
+		}
+
+		@Override
+		public int fadeOutDuration()
+		{
+			return 1;
+		}
+
+		@Override
+		public RareItemHighlight rareItemHighlight()
+		{
+			return highlight;
+		}
+
+		@Override
+		public String rareItemNames()
+		{
+			return "*godsword*, dragon*, twisted bow, *hilt";
+		}
+
+		// Every background layer and both fades, so all of them are covered
+		@Override
+		public boolean useGradient()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean fadeOlderEntries()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean showLootTypeIcon()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean showItemNames()
+		{
+			return true;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package com.LootHUD;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.ui.FontManager;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Plays the same session through two overlays, one drawing every frame and so reusing its
+ * composite of the HUD whenever it can, the other drawing from scratch at each checkpoint.
+ * While loot arrives, entries expire and fade out, both must always draw the same pixels.
+ */
+public class LootHudOverlayCacheTest
+{
+	private static final long FRAME_MILLIS = 20;
+	private static final int FRAMES_PER_TICK = 30;
+	private static final int FRAMES = 1_500;
+	// Loot stops after this, so the remaining entries fade out and expire
+	private static final int LOOT_FRAMES = 900;
+	private static final int CHECKPOINT_FRAMES = 7;
+
+	@Test
+	public void reusedFramesMatchFreshFrames()
+	{
+		PluginFixture cached = new PluginFixture(new TestConfig());
+		PluginFixture fresh = new PluginFixture(new TestConfig());
+
+		BufferedImage cachedImage = new BufferedImage(400, 800, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage freshImage = new BufferedImage(400, 800, BufferedImage.TYPE_INT_ARGB);
+		GameTick gameTick = new GameTick();
+		BeforeRender beforeRender = new BeforeRender();
+
+		int events = 0;
+		for (int frame = 0; frame < FRAMES; frame++)
+		{
+			boolean tick = frame % FRAMES_PER_TICK == 0;
+			for (PluginFixture fixture : new PluginFixture[]{cached, fresh})
+			{
+				fixture.advance(FRAME_MILLIS);
+				if (tick && frame < LOOT_FRAMES)
+				{
+					fixture.getPlugin().onLootReceived(PluginFixture.loot(events));
+				}
+				if (tick)
+				{
+					fixture.getPlugin().onGameTick(gameTick);
+				}
+				fixture.getPlugin().onBeforeRender(beforeRender);
+			}
+			if (tick && frame < LOOT_FRAMES)
+			{
+				events++;
+			}
+
+			Dimension cachedSize = draw(cached.getOverlay(), cachedImage);
+			if (frame % CHECKPOINT_FRAMES != 0)
+			{
+				continue;
+			}
+
+			fresh.getOverlay().clearCaches();
+			Dimension freshSize = draw(fresh.getOverlay(), freshImage);
+			assertEquals("size in frame " + frame, freshSize, cachedSize);
+			assertArrayEquals("pixels in frame " + frame, pixels(freshImage), pixels(cachedImage));
+		}
+
+		cached.getPlugin().shutDown();
+		fresh.getPlugin().shutDown();
+	}
+
+	private static Dimension draw(LootHudOverlay overlay, BufferedImage image)
+	{
+		Graphics2D graphics = image.createGraphics();
+		try
+		{
+			graphics.setColor(Color.DARK_GRAY);
+			graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+			graphics.setFont(FontManager.getRunescapeFont());
+			Dimension size = overlay.render(graphics);
+			// The overlay reuses its Dimension
+			return size == null ? null : new Dimension(size);
+		}
+		finally
+		{
+			graphics.dispose();
+		}
+	}
+
+	private static int[] pixels(BufferedImage image)
+	{
+		return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+	}
+
+	private static class TestConfig implements LootHudConfig
+	{
+		@Override
+		public int displayDuration()
+		{
+			return 4;
+		}
+
+		@Override
+		public boolean fadeOutAnimation()
+		{
+			return true;
+		}
+
+		@Override
+		public int fadeOutDuration()
+		{
+			return 1;
+		}
+
+		@Override
+		public boolean fadeOlderEntries()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean useGradient()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean showItemNames()
+		{
+			return true;
+		}
+
+		@Override
+		public RareItemHighlight rareItemHighlight()
+		{
+			return RareItemHighlight.STATIC;
+		}
+
+		@Override
+		public String rareItemNames()
+		{
+			return "*godsword*, dragon*, twisted bow, *hilt";
+		}
+	}
+}
@@ -0,0 +1,228 @@
+package com.LootHUD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.game.ItemStack;
+import net.runelite.client.plugins.loottracker.LootReceived;
+import net.runelite.http.api.loottracker.LootRecordType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Hammers the plugin from a simulated client thread while other threads read the
+ * published loot, checking that readers only ever see complete, consistent snapshots.
+ * The rare item patterns change now and then, which re-describes every stored entry.
+ */
+public class LootHudPluginConcurrencyTest
+{
+	private static final int MAX_NOTIFICATIONS = 5;
+	private static final int LOOT_EVENTS = 20_000;
+	private static final int READERS = 3;
+	private static final int EVENTS_PER_PATTERN_CHANGE = 50;
+	private static final String[] RARE_ITEM_NAMES = {"dragon*, *godsword", "*bones, *rune"};
+
+	@Test
+	public void testIndividualSnapshotsAreNeverTorn() throws Exception
+	{
+		runStress(false);
+	}
+
+	@Test
+	public void testGroupedSnapshotsAreNeverTorn() throws Exception
+	{
+		runStress(true);
+	}
+
+	private void runStress(boolean groupLoot) throws Exception
+	{
+		TestConfig config = new TestConfig(groupLoot);
+		PluginFixture fixture = new PluginFixture(config);
+		LootHudPlugin plugin = fixture.getPlugin();
+
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<Thread> readers = new ArrayList<>();
+		for (int i = 0; i < READERS; i++)
+		{
+			Thread reader = new Thread(() -> {
+				try
+				{
+					start.await();
+					while (!done.get() && failure.get() == null)
+					{
+						checkSnapshot(plugin.getRecentLoot());
+					}
+				}
+				catch (Throwable t)
+				{
+					failure.compareAndSet(null, t);
+				}
+			}, "loothud-reader-" + i);
+			readers.add(reader);
+			reader.start();
+		}
+
+		ConfigChanged rareItemNamesChanged = new ConfigChanged();
+		rareItemNamesChanged.setGroup("loothud");
+		rareItemNamesChanged.setKey("rareItemNames");
+
+		start.countDown();
+		try
+		{
+			for (int i = 0; i < LOOT_EVENTS && failure.get() == null; i++)
+			{
+				plugin.onLootReceived(lootEvent(i));
+				fixture.advance(37);
+				if (i % 3 == 0)
+				{
+					// Several loot events arrive per game tick
+					plugin.onGameTick(new GameTick());
+				}
+				if (i % 4 == 0)
+				{
+					plugin.onBeforeRender(new BeforeRender());
+				}
+				if (i % EVENTS_PER_PATTERN_CHANGE == 0)
+				{
+					config.rareItemNames = RARE_ITEM_NAMES[(i / EVENTS_PER_PATTERN_CHANGE) % RARE_ITEM_NAMES.length];
+					plugin.onConfigChanged(rareItemNamesChanged);
+				}
+			}
+		}
+		finally
+		{
+			done.set(true);
+			for (Thread reader : readers)
+			{
+				reader.join();
+			}
+			plugin.shutDown();
+		}
+
+		assertNull("Reader observed a torn snapshot: " + failure.get(), failure.get());
+		assertTrue(plugin.getRecentLoot().isEmpty());
+	}
+
+	private static LootReceived lootEvent(int i)
+	{
+		List<ItemStack> items = new ArrayList<>();
+		for (int j = 0; j <= i % 3; j++)
+		{
+			// Quantities change every event so none are dropped as duplicates
+			items.add(new ItemStack(PluginFixture.FIRST_ITEM_ID + (i + j * 7) % 40, i + 1));
+		}
+		return new LootReceived("Monster " + (i % 9), 100, LootRecordType.NPC, items, 1);
+	}
+
+	private static void checkSnapshot(List<LootHudEntry> entries)
+	{
+		assertTrue("Too many entries: " + entries.size(), entries.size() <= MAX_NOTIFICATIONS);
+
+		LootHudEntry[] seen = entries.toArray(new LootHudEntry[0]);
+		Map<LootHudEntry, Boolean> unique = new IdentityHashMap<>();
+		List<List<ItemStack>> itemLists = new ArrayList<>();
+		List<List<ItemStack>> itemCopies = new ArrayList<>();
+		List<LootItemInfo> itemInfos = new ArrayList<>();
+		for (int i = 0; i < seen.length; i++)
+		{
+			LootHudEntry entry = seen[i];
+			if (entry == null)
+			{
+				fail("Null entry at " + i);
+			}
+			if (unique.put(entry, Boolean.TRUE) != null)
+			{
+				fail("Duplicate entry for " + entry.getSourceName());
+			}
+			if (i > 0 && seen[i - 1].getExpirationTime() < entry.getExpirationTime())
+			{
+				fail("Entries out of order at " + i);
+			}
+			itemLists.add(entry.getItems());
+			itemCopies.add(new ArrayList<>(entry.getItems()));
+			itemInfos.add(entry.getItemInfo());
+			assertEquals("Item info of " + entry.getSourceName() + " doesn't match its items",
+				entry.getItems().size(), entry.getItemInfo().size());
+		}
+
+		try
+		{
+			entries.add(seen.length > 0 ? seen[0] : null);
+			fail("Published list is modifiable");
+		}
+		catch (UnsupportedOperationException expected)
+		{
+			// Snapshots must be read-only
+		}
+
+		Thread.yield();
+
+		// A published snapshot, its item lists and item info must never change after the fact
+		assertTrue("Snapshot changed while being read", Arrays.equals(seen, entries.toArray()));
+		for (int i = 0; i < seen.length; i++)
+		{
+			assertEquals("Items of " + seen[i].getSourceName() + " changed while being read",
+				itemCopies.get(i), itemLists.get(i));
+			assertTrue(itemLists.get(i) == seen[i].getItems());
+			assertSame("Item info of " + seen[i].getSourceName() + " changed while being read",
+				itemInfos.get(i), seen[i].getItemInfo());
+		}
+	}
+
+	private static class TestConfig implements LootHudConfig
+	{
+		private final boolean groupLoot;
+		// Written by the test thread before it reports the change, like the config manager would
+		private volatile String rareItemNames = RARE_ITEM_NAMES[0];
+
+		TestConfig(boolean groupLoot)
+		{
+			this.groupLoot = groupLoot;
+		}
+
+		@Override
+		public boolean groupLoot()
+		{
+			return groupLoot;
+		}
+
+		@Override
+		public String rareItemNames()
+		{
+			return rareItemNames;
+		}
+
+		@Override
+		public int maxNotifications()
+		{
+			return MAX_NOTIFICATIONS;
+		}
+
+		@Override
+		public int displayDuration()
+		{
+			return 2;
+		}
+
+		@Override
+		public int minValueToShow()
+		{
+			return 0;
+		}
+	}
+}
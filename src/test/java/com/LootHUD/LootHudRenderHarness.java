@@ -0,0 +1,159 @@
+package com.LootHUD;
+
+import com.sun.management.ThreadMXBean;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.ui.FontManager;
+
+/**
+ * Renders the overlay without a game client and reports what each frame costs.
+ * Every scenario drives the plugin with synthetic loot on a simulated clock and draws
+ * frames into an offscreen image the way the overlay renderer would. The wall time, CPU
+ * time and bytes allocated by each measured frame are read from the thread MX bean.
+ * Runs headless, so render regressions can be measured on a CI machine:
+ * {@code java -cp <test runtime classpath> com.LootHUD.LootHudRenderHarness [frames]}
+ */
+public class LootHudRenderHarness
+{
+	private static final int MAX_NOTIFICATIONS = 5;
+	// 50 frames per second, so a game tick every 30 frames
+	private static final long FRAME_MILLIS = 20;
+	private static final int FRAMES_PER_TICK = 30;
+	private static final int WARMUP_FRAMES = 5_000;
+	private static final int DEFAULT_FRAMES = 20_000;
+
+	private enum Scenario
+	{
+		// A full list of entries that never expires and no new loot
+		IDLE(0, true),
+		// One loot event per game tick, entries expire as they would in play
+		STEADY(1, false),
+		// Several events per game tick, as with area attacks or opening a raid chest
+		BURST(6, false);
+
+		private final int lootPerTick;
+		private final boolean alwaysShow;
+
+		Scenario(int lootPerTick, boolean alwaysShow)
+		{
+			this.lootPerTick = lootPerTick;
+			this.alwaysShow = alwaysShow;
+		}
+	}
+
+	public static void main(String[] args)
+	{
+		System.setProperty("java.awt.headless", "true");
+		int frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported() || !threads.isCurrentThreadCpuTimeSupported())
+		{
+			throw new IllegalStateException("This JVM can't measure per thread allocation and CPU time");
+		}
+		threads.setThreadAllocatedMemoryEnabled(true);
+		threads.setThreadCpuTimeEnabled(true);
+
+		System.out.printf("%d measured frames per run after %d warmup frames%n", frames, WARMUP_FRAMES);
+		for (Scenario scenario : Scenario.values())
+		{
+			for (LootHudConfig.RareItemHighlight highlight : LootHudConfig.RareItemHighlight.values())
+			{
+				run(threads, scenario, highlight, frames);
+			}
+		}
+	}
+
+	private static void run(ThreadMXBean threads, Scenario scenario, LootHudConfig.RareItemHighlight highlight, int frames)
+	{
+		PluginFixture fixture = new PluginFixture(new LootHudConfig()
+		{
+			@Override
+			public int maxNotifications()
+			{
+				return MAX_NOTIFICATIONS;
+			}
+
+			@Override
+			public boolean alwaysShowOverlay()
+			{
+				return scenario.alwaysShow;
+			}
+
+			@Override
+			public RareItemHighlight rareItemHighlight()
+			{
+				return highlight;
+			}
+
+			@Override
+			public String rareItemNames()
+			{
+				return "*godsword*, dragon*, twisted bow, *hilt";
+			}
+		});
+		LootHudPlugin plugin = fixture.getPlugin();
+		LootHudOverlay overlay = fixture.getOverlay();
+
+		int events = 0;
+		for (; events < MAX_NOTIFICATIONS; events++)
+		{
+			fixture.receive(PluginFixture.loot(events));
+		}
+
+		BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setFont(FontManager.getRunescapeFont());
+
+		GameTick gameTick = new GameTick();
+		BeforeRender beforeRender = new BeforeRender();
+		long threadId = Thread.currentThread().getId();
+
+		LatencyHistogram wallTimes = new LatencyHistogram();
+		LatencyHistogram cpuTimes = new LatencyHistogram();
+		long allocatedTotal = 0;
+		long allocatedMax = 0;
+
+		for (int frame = 0; frame < WARMUP_FRAMES + frames; frame++)
+		{
+			fixture.advance(FRAME_MILLIS);
+			if (frame % FRAMES_PER_TICK == 0 && scenario.lootPerTick > 0)
+			{
+				for (int i = 0; i < scenario.lootPerTick; i++)
+				{
+					plugin.onLootReceived(PluginFixture.loot(events++));
+				}
+				plugin.onGameTick(gameTick);
+			}
+			plugin.onBeforeRender(beforeRender);
+
+			long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+			long cpuBefore = threads.getCurrentThreadCpuTime();
+			long wallBefore = System.nanoTime();
+			overlay.render(graphics);
+			long wall = System.nanoTime() - wallBefore;
+			long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+			long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+			if (frame >= WARMUP_FRAMES)
+			{
+				wallTimes.record(wall);
+				cpuTimes.record(cpu);
+				allocatedTotal += allocated;
+				allocatedMax = Math.max(allocatedMax, allocated);
+			}
+		}
+
+		graphics.dispose();
+		plugin.shutDown();
+
+		System.out.printf("%-6s %-7s wall mean %d us, p50 %d us, p99 %d us, max %d us | cpu mean %d us | allocated mean %d B, max %d B%n",
+			scenario, highlight.name(),
+			wallTimes.getMean() / 1_000, wallTimes.getPercentile(50) / 1_000, wallTimes.getPercentile(99) / 1_000, wallTimes.getMax() / 1_000,
+			cpuTimes.getMean() / 1_000,
+			allocatedTotal / frames, allocatedMax);
+	}
+}
@@ -0,0 +1,113 @@
+package com.LootHUD;
+
+import java.io.File;
+import net.runelite.api.events.GameTick;
+
+/**
+ * Feeds a loot journal recorded by the plugin back through a fresh plugin and reports
+ * how fast it was ingested.
+ * Events are delivered in their recorded order with a game tick wherever the recorded tick
+ * changes, ticks without loot are skipped. The plugin's clock follows the recorded times.
+ * By default the journal plays as fast as possible, {@code --realtime} waits out the
+ * recorded gaps instead. {@code --repeat=N} plays it N times in a row, {@code --group}
+ * turns on grouping.
+ * {@code java -cp <test runtime classpath> com.LootHUD.LootJournalReplay <journal> [--realtime] [--repeat=N] [--group]}
+ */
+public class LootJournalReplay
+{
+	public static void main(String[] args) throws Exception
+	{
+		File file = null;
+		boolean realtime = false;
+		boolean groupLoot = false;
+		int repeat = 1;
+		for (String arg : args)
+		{
+			if (arg.equals("--realtime"))
+			{
+				realtime = true;
+			}
+			else if (arg.equals("--group"))
+			{
+				groupLoot = true;
+			}
+			else if (arg.startsWith("--repeat="))
+			{
+				repeat = Integer.parseInt(arg.substring("--repeat=".length()));
+			}
+			else
+			{
+				file = new File(arg);
+			}
+		}
+		if (file == null)
+		{
+			System.err.println("usage: LootJournalReplay <journal> [--realtime] [--repeat=N] [--group]");
+			System.exit(1);
+		}
+
+		boolean group = groupLoot;
+		PluginFixture fixture = new PluginFixture(new LootHudConfig()
+		{
+			@Override
+			public boolean groupLoot()
+			{
+				return group;
+			}
+		});
+		LootHudPlugin plugin = fixture.getPlugin();
+		GameTick gameTick = new GameTick();
+
+		LatencyHistogram lootTimes = new LatencyHistogram();
+		LatencyHistogram tickTimes = new LatencyHistogram();
+		long events = 0;
+		long tick = 0;
+		long millis = 0;
+		long start = System.nanoTime();
+
+		for (int pass = 0; pass < repeat; pass++)
+		{
+			// Each pass continues where the previous one ended
+			long tickOffset = tick + 1;
+			long millisOffset = millis;
+			try (LootJournalReader reader = LootJournalReader.open(file))
+			{
+				LootJournalReader.Record record;
+				while ((record = reader.next()) != null)
+				{
+					long wait = millisOffset + record.millis - millis;
+					if (realtime && wait > 0)
+					{
+						Thread.sleep(wait);
+					}
+					fixture.advance(wait);
+					millis += wait;
+
+					if (tickOffset + record.tick != tick)
+					{
+						tick = tickOffset + record.tick;
+						long tickStart = System.nanoTime();
+						plugin.onGameTick(gameTick);
+						tickTimes.record(System.nanoTime() - tickStart);
+					}
+
+					long lootStart = System.nanoTime();
+					plugin.onLootReceived(record.event);
+					lootTimes.record(System.nanoTime() - lootStart);
+					events++;
+				}
+			}
+		}
+		plugin.onGameTick(gameTick);
+		long elapsed = System.nanoTime() - start;
+		plugin.shutDown();
+
+		System.out.printf("%d events in %d ms, %.0f events/s%n", events, elapsed / 1_000_000, events * 1e9 / elapsed);
+		System.out.printf("loot received: p50 %d us, p99 %d us, max %d us, mean %d us%n",
+			lootTimes.getPercentile(50) / 1_000, lootTimes.getPercentile(99) / 1_000,
+			lootTimes.getMax() / 1_000, lootTimes.getMean() / 1_000);
+		System.out.printf("game tick: p50 %d us, p99 %d us, max %d us, mean %d us (%d)%n",
+			tickTimes.getPercentile(50) / 1_000, tickTimes.getPercentile(99) / 1_000,
+			tickTimes.getMax() / 1_000, tickTimes.getMean() / 1_000, tickTimes.getCount());
+	}
+}
@@ -0,0 +1,348 @@
+package com.LootHUD;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.awt.image.BufferedImage;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import javax.inject.Inject;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+import net.runelite.api.Client;
+import net.runelite.api.ItemComposition;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.game.ItemStack;
+import net.runelite.client.input.KeyManager;
+import net.runelite.client.plugins.loottracker.LootReceived;
+import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.util.AsyncBufferedImage;
+import net.runelite.http.api.loottracker.LootRecordType;
+import org.objenesis.ObjenesisStd;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * The plugin and its overlay wired by Guice the way RuneLite wires them, with the client
+ * and its managers stubbed. The thread using the fixture plays the part of the client thread.
+ * Tasks queued with invokeLater only run when the caller runs a client tick, tasks for the
+ * executor run right away.
+ * Time only moves when the caller advances it, so runs are reproducible.
+ * Item compositions are created up front, so the stubs only cost a lookup on the measured paths.
+ * The item manager and the compositions it returns aren't Mockito mocks, Mockito walks the stack
+ * on every call and that would allocate several times what the plugin does per loot event.
+ * The other mocks don't record their invocations, long runs would otherwise keep every call.
+ * Any item ID is accepted, IDs outside the synthetic range, as in recorded journals, wrap onto it.
+ */
+class PluginFixture
+{
+	static final int FIRST_ITEM_ID = 1000;
+	// Size of the item catalogue, covering every ID the tests use
+	static final int ITEM_COUNT = 4096;
+	static final String[] ITEM_NAMES = {
+		"Bones", "Big bones", "Dragon bones", "Coins", "Rune arrow", "Nature rune", "Death rune",
+		"Blood rune", "Grimy ranarr weed", "Grimy snapdragon", "Ranarr seed", "Snapdragon seed",
+		"Uncut diamond", "Uncut dragonstone", "Rune platelegs", "Rune full helm", "Adamant bar",
+		"Runite ore", "Shark", "Manta ray", "Dragon med helm", "Dragon spear", "Abyssal whip",
+		"Dragon chainbody", "Armadyl godsword", "Bandos chestplate", "Saradomin hilt",
+		"Twisted bow", "Clue scroll (hard)", "Ancient shard", "Crystal key", "Brimstone key"
+	};
+	static final String[] SOURCES = {
+		"Abyssal demon", "Gargoyle", "Kraken", "General Graardor", "Kree'arra", "Vorkath",
+		"Master Farmer", "Chambers of Xeric", "Zulrah"
+	};
+
+	// Item manager subclass that hands its lookups to an ItemLookups in its "lookups" field
+	private static final Class<? extends ItemManager> STUB_ITEM_MANAGER = new ByteBuddy()
+		.subclass(ItemManager.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+		.name(PluginFixture.class.getName() + "$StubItemManager")
+		.defineField("lookups", ItemLookups.class, Visibility.PUBLIC)
+		.method(named("getItemComposition").and(takesArguments(int.class))
+			.or(named("getItemPrice").and(takesArguments(int.class)))
+			.or(named("getImage").and(takesArguments(int.class, int.class, boolean.class))))
+		.intercept(MethodDelegation.toField("lookups"))
+		.make()
+		.load(PluginFixture.class.getClassLoader(), ClassLoadingStrategy.UsingLookup.of(MethodHandles.lookup()))
+		.getLoaded();
+
+	@Bind
+	private final Client client = mock(Client.class, withSettings().stubOnly());
+
+	@Bind
+	private final ClientThread clientThread = mock(ClientThread.class, withSettings().stubOnly());
+
+	@Bind
+	private final ItemManager itemManager;
+
+	@Bind
+	private final OverlayManager overlayManager = mock(OverlayManager.class, withSettings().stubOnly());
+
+	@Bind
+	private final KeyManager keyManager = mock(KeyManager.class, withSettings().stubOnly());
+
+	@Bind
+	private final EventBus eventBus = mock(EventBus.class, withSettings().stubOnly());
+
+	@Bind
+	private final LootHudConfig config;
+
+	@Bind
+	private final ScheduledExecutorService executor = mock(ScheduledExecutorService.class, withSettings().stubOnly());
+
+	@Bind(to = LootHudClock.class)
+	private final ManualClock clock = new ManualClock();
+
+	@Bind
+	private final LootHudPlugin plugin = new LootHudPlugin();
+
+	@Inject
+	private LootHudOverlay overlay;
+
+	private final GameTick gameTick = new GameTick();
+	private final List<BooleanSupplier> clientTasks = new ArrayList<>();
+	private final Injector injector;
+
+	/**
+	 * Creates and starts the plugin.
+	 * @param config Config the plugin runs with
+	 */
+	PluginFixture(LootHudConfig config)
+	{
+		this(config, true);
+	}
+
+	/**
+	 * Creates and starts the plugin.
+	 * @param config Config the plugin runs with
+	 * @param iconsLoaded Whether item icons are loaded, or stay loading for the whole run
+	 */
+	PluginFixture(LootHudConfig config, boolean iconsLoaded)
+	{
+		this.config = config;
+
+		doAnswer(invocation -> {
+			((Runnable) invocation.getArgument(0)).run();
+			return null;
+		}).when(clientThread).invoke(any(Runnable.class));
+		doAnswer(invocation -> {
+			((Runnable) invocation.getArgument(0)).run();
+			return null;
+		}).when(executor).execute(any(Runnable.class));
+		doAnswer(invocation -> clientTasks.add(invocation.getArgument(0)))
+			.when(clientThread).invokeLater(any(BooleanSupplier.class));
+		when(client.getItemCount()).thenReturn(ITEM_COUNT);
+
+		itemManager = stubItemManager(new ItemLookups(clientThread, iconsLoaded));
+
+		injector = Guice.createInjector(BoundFieldModule.of(this));
+		injector.injectMembers(this);
+		plugin.startUp();
+	}
+
+	LootHudPlugin getPlugin()
+	{
+		return plugin;
+	}
+
+	LootHudOverlay getOverlay()
+	{
+		return overlay;
+	}
+
+	/**
+	 * Creates an item catalogue index of its own, next to the plugin's, with the same client and items.
+	 */
+	ItemCatalogueIndex createItemCatalogue()
+	{
+		return injector.getInstance(ItemCatalogueIndex.class);
+	}
+
+	/**
+	 * Runs a client tick: every task queued with invokeLater runs once, those that return
+	 * false stay queued for the next tick.
+	 */
+	void runClientTasks()
+	{
+		List<BooleanSupplier> tasks = new ArrayList<>(clientTasks);
+		clientTasks.clear();
+		for (BooleanSupplier task : tasks)
+		{
+			if (!task.getAsBoolean())
+			{
+				clientTasks.add(task);
+			}
+		}
+	}
+
+	boolean hasClientTasks()
+	{
+		return !clientTasks.isEmpty();
+	}
+
+	/**
+	 * Runs client ticks until no task is queued, then waits for the work they handed to the
+	 * fork-join pool, like the item catalogue sweep.
+	 */
+	void finishClientTasks()
+	{
+		while (hasClientTasks())
+		{
+			runClientTasks();
+		}
+		ForkJoinPool.commonPool().awaitQuiescence(10, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Moves the time seen by the plugin and the overlay forward.
+	 * @param millis Milliseconds to advance
+	 */
+	void advance(long millis)
+	{
+		clock.now += millis;
+	}
+
+	/**
+	 * Delivers a loot event and the game tick that applies it.
+	 * @param event Loot event
+	 */
+	void receive(LootReceived event)
+	{
+		plugin.onLootReceived(event);
+		plugin.onGameTick(gameTick);
+	}
+
+	/**
+	 * Builds the n-th loot event of a session. Quantities change with n, so consecutive
+	 * events are never dropped as duplicates.
+	 * @param n Event number
+	 * @return loot event with one to four items
+	 */
+	static LootReceived loot(int n)
+	{
+		List<ItemStack> items = new ArrayList<>();
+		for (int j = 0; j <= n % 4; j++)
+		{
+			items.add(new ItemStack(FIRST_ITEM_ID + (n * 7 + j * 11) % ITEM_NAMES.length, 1 + n % 1000 + j));
+		}
+		LootRecordType type = n % 5 == 4 ? LootRecordType.PICKPOCKET : LootRecordType.NPC;
+		return new LootReceived(SOURCES[n % SOURCES.length], 100, type, items, 1);
+	}
+
+	/**
+	 * @param itemId Any item ID
+	 * @return the name the stubbed item manager gives the item
+	 */
+	static String itemName(int itemId)
+	{
+		return ITEM_NAMES[itemIndex(itemId)];
+	}
+
+	private static int itemIndex(int itemId)
+	{
+		return Math.floorMod(itemId - FIRST_ITEM_ID, ITEM_NAMES.length);
+	}
+
+	/**
+	 * Creates an item manager whose lookups call straight into the given ones. It's created
+	 * without running a constructor, so none of the real manager's dependencies are needed.
+	 */
+	private static ItemManager stubItemManager(ItemLookups lookups)
+	{
+		ItemManager itemManager = new ObjenesisStd().newInstance(STUB_ITEM_MANAGER);
+		try
+		{
+			STUB_ITEM_MANAGER.getDeclaredField("lookups").set(itemManager, lookups);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return itemManager;
+	}
+
+	/**
+	 * The synthetic item catalogue the stubbed item manager answers from.
+	 */
+	static class ItemLookups
+	{
+		private final ItemComposition[] compositions = new ItemComposition[ITEM_NAMES.length];
+		private final AsyncBufferedImage icon;
+
+		ItemLookups(ClientThread clientThread, boolean iconsLoaded)
+		{
+			for (int i = 0; i < ITEM_NAMES.length; i++)
+			{
+				compositions[i] = composition(ITEM_NAMES[i], i % 4 == 3);
+			}
+			icon = new AsyncBufferedImage(clientThread, 36, 32, BufferedImage.TYPE_INT_ARGB);
+			if (iconsLoaded)
+			{
+				icon.loaded();
+			}
+		}
+
+		public ItemComposition getItemComposition(int itemId)
+		{
+			return compositions[itemIndex(itemId)];
+		}
+
+		// Prices spread from a few coins to billions, so every value tier is hit
+		public int getItemPrice(int itemId)
+		{
+			return (1 << itemIndex(itemId)) & Integer.MAX_VALUE;
+		}
+
+		public AsyncBufferedImage getImage(int itemId, int quantity, boolean stackable)
+		{
+			return icon;
+		}
+
+		/**
+		 * Creates a composition that only knows its name and whether it stacks, the rest isn't used.
+		 */
+		private static ItemComposition composition(String name, boolean stackable)
+		{
+			return (ItemComposition) Proxy.newProxyInstance(ItemComposition.class.getClassLoader(),
+				new Class<?>[]{ItemComposition.class}, (proxy, method, args) -> {
+					switch (method.getName())
+					{
+						case "getName":
+							return name;
+						case "isStackable":
+							return stackable;
+						default:
+							throw new UnsupportedOperationException(method.getName());
+					}
+				});
+		}
+	}
+
+	private static class ManualClock extends LootHudClock
+	{
+		private long now = 1_000_000;
+
+		@Override
+		long millis()
+		{
+			return now;
+		}
+	}
+}
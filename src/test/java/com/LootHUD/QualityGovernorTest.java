@@ -0,0 +1,210 @@
+package com.LootHUD;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Feeds the governor made up frame times and checks the tiers and settings it picks.
+ */
+public class QualityGovernorTest
+{
+	private static final long FAST = 200_000;
+	private static final long SLOW = 3_000_000;
+
+	private final LootHudSettings settings = LootHudSettings.from(new TestConfig(true));
+
+	@Test
+	public void stepsDownOneTierPerSlowWindow()
+	{
+		QualityGovernor governor = new QualityGovernor();
+		governor.apply(settings);
+
+		for (int i = 1; i < QualityGovernor.Tier.values().length; i++)
+		{
+			assertTrue(window(governor, SLOW));
+			assertEquals(QualityGovernor.Tier.values()[i], governor.getTier());
+		}
+
+		// Nothing cheaper left
+		assertFalse(window(governor, SLOW));
+		assertEquals(QualityGovernor.Tier.ICONS_ONLY, governor.getTier());
+	}
+
+	@Test
+	public void singleSlowFrameDoesntStepDown()
+	{
+		QualityGovernor governor = new QualityGovernor();
+		governor.apply(settings);
+
+		assertFalse(governor.record(50_000_000));
+		for (int i = 1; i < QualityGovernor.WINDOW_FRAMES; i++)
+		{
+			assertFalse(governor.record(FAST));
+		}
+		assertEquals(QualityGovernor.Tier.FULL, governor.getTier());
+	}
+
+	@Test
+	public void stepsUpAfterSteadyHeadroom()
+	{
+		QualityGovernor governor = new QualityGovernor();
+		governor.apply(settings);
+		window(governor, SLOW);
+		window(governor, SLOW);
+		// Dropping the animation saved three quarters of the frame time
+		window(governor, 750_000);
+
+		// Then the load falls, 100 us now predicts 400 us with the animation back
+		for (int i = 1; i < QualityGovernor.RECOVERY_WINDOWS; i++)
+		{
+			assertFalse(window(governor, 100_000));
+		}
+		assertTrue(window(governor, 100_000));
+		assertEquals(QualityGovernor.Tier.NO_GRADIENT, governor.getTier());
+
+		// Between the recovery threshold and the budget, the tier stays
+		for (int i = 0; i < QualityGovernor.RECOVERY_WINDOWS * 2; i++)
+		{
+			assertFalse(window(governor, 800_000));
+		}
+		assertEquals(QualityGovernor.Tier.NO_GRADIENT, governor.getTier());
+	}
+
+	@Test
+	public void settlesWhenCheaperTierHasHeadroom()
+	{
+		QualityGovernor governor = new QualityGovernor();
+		governor.apply(settings);
+
+		// Animated frames are over budget, without animation frames are one cheap blit
+		int changes = 0;
+		for (int i = 0; i < QualityGovernor.RECOVERY_WINDOWS * 20; i++)
+		{
+			boolean animated = governor.getTier().compareTo(QualityGovernor.Tier.NO_ANIMATION) < 0;
+			if (window(governor, animated ? SLOW : 100_000))
+			{
+				changes++;
+			}
+		}
+
+		assertEquals(QualityGovernor.Tier.NO_ANIMATION, governor.getTier());
+		assertEquals(2, changes);
+	}
+
+	@Test
+	public void reducesSettingsPerTier()
+	{
+		QualityGovernor governor = new QualityGovernor();
+		assertSame(settings, governor.apply(settings));
+
+		window(governor, SLOW);
+		LootHudSettings noGradient = governor.apply(settings);
+		assertFalse(noGradient.useGradient);
+		assertEquals(LootHudConfig.RareItemHighlight.RAINBOW, noGradient.rareItemHighlight);
+		// Reused until the tier changes, so cached sprites and layouts stay valid
+		assertSame(noGradient, governor.apply(settings));
+
+		window(governor, SLOW);
+		LootHudSettings noAnimation = governor.apply(settings);
+		assertEquals(LootHudConfig.RareItemHighlight.STATIC, noAnimation.rareItemHighlight);
+		assertTrue(noAnimation.fadeOlderEntries);
+
+		window(governor, SLOW);
+		LootHudSettings noEntryAlpha = governor.apply(settings);
+		assertFalse(noEntryAlpha.fadeOlderEntries);
+		assertFalse(noEntryAlpha.fadeOutAnimation);
+		assertTrue(noEntryAlpha.showItemNames);
+
+		window(governor, SLOW);
+		LootHudSettings iconsOnly = governor.apply(settings);
+		assertTrue(iconsOnly.iconsOnly);
+		assertFalse(iconsOnly.showItemNames);
+		assertFalse(iconsOnly.showTotalValue);
+		assertFalse(iconsOnly.showLootTypeIcon);
+		assertTrue(iconsOnly.showItemIcons);
+	}
+
+	@Test
+	public void turningItOffRestoresFullQuality()
+	{
+		QualityGovernor governor = new QualityGovernor();
+		governor.apply(settings);
+		window(governor, SLOW);
+
+		LootHudSettings off = LootHudSettings.from(new TestConfig(false));
+		assertSame(off, governor.apply(off));
+		assertEquals(QualityGovernor.Tier.FULL, governor.getTier());
+		// Frame times aren't judged while it's off
+		assertFalse(window(governor, SLOW));
+	}
+
+	/**
+	 * Records a window of frames that all took the same time.
+	 * @return whether the tier changed
+	 */
+	private static boolean window(QualityGovernor governor, long nanos)
+	{
+		boolean changed = false;
+		for (int i = 0; i < QualityGovernor.WINDOW_FRAMES; i++)
+		{
+			changed |= governor.record(nanos);
+		}
+		return changed;
+	}
+
+	private static class TestConfig implements LootHudConfig
+	{
+		private final boolean adaptiveQuality;
+
+		TestConfig(boolean adaptiveQuality)
+		{
+			this.adaptiveQuality = adaptiveQuality;
+		}
+
+		@Override
+		public boolean adaptiveQuality()
+		{
+			return adaptiveQuality;
+		}
+
+		// 1 ms budget, frames under 0.5 ms have headroom
+		@Override
+		public int frameBudget()
+		{
+			return 1000;
+		}
+
+		@Override
+		public boolean useGradient()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean fadeOlderEntries()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean showItemNames()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean showLootTypeIcon()
+		{
+			return true;
+		}
+
+		@Override
+		public RareItemHighlight rareItemHighlight()
+		{
+			return RareItemHighlight.RAINBOW;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.LootHUD;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks that a compiled pattern set agrees with {@link WildcardMatcher}, which it replaces,
+ * for the patterns and texts below one at a time, in pairs and all together, and for random
+ * patterns over two letters.
+ */
+public class WildcardPatternSetTest
+{
+	private static final String[] PATTERNS = {
+		// Anchored at the start, the end, or both
+		"dragon*", "*hilt", "twisted bow", "rune*arrow", "*godsword*",
+		// Repeated and overlapping segments
+		"*a*a*", "*aa*", "a*a", "aa*aa", "*ab*ba", "*aba*ba", "ab*b", "*bones*bones",
+		// Only wildcards, empty and blank
+		"*", "**", "", "   ",
+		// Surrounding whitespace and mixed case
+		"  dragon*  ", " Twisted Bow", "*HILT ", "Rune*ARROW"
+	};
+
+	private static final String[] TEXTS = {
+		"Dragon bones", "dragon", "Dragonstone", "Rune dragon", "Saradomin hilt", "Hilt", "hilted",
+		"Twisted bow", "TWISTED BOW", "Twisted bowstring", "A twisted bow", "Rune arrow", "Rune arrow(p)",
+		"Runearrow", "Armadyl godsword", "godsword", "Godsword shard 1",
+		"a", "aa", "aaa", "aaaa", "ab", "aba", "abab", "ababa", "abba", "abb", "b",
+		"Big bones bones", "bones", "bonesbones",
+		"", " ", "  Dragon bones  ", "\tSaradomin hilt\n", " Twisted bow "
+	};
+
+	@Test
+	public void singlePatternsMatchLikeWildcardMatcher()
+	{
+		for (String pattern : PATTERNS)
+		{
+			WildcardPatternSet set = WildcardPatternSet.compile(Collections.singletonList(pattern));
+			for (String text : TEXTS)
+			{
+				assertEquals("'" + pattern + "' against '" + text + "'",
+					WildcardMatcher.matches(pattern, text), set.matches(text));
+			}
+		}
+	}
+
+	@Test
+	public void pairsMatchLikeAnyMatches()
+	{
+		// Patterns sharing segments share automaton states, so check them side by side
+		for (String first : PATTERNS)
+		{
+			for (String second : PATTERNS)
+			{
+				assertMatchesLikeAnyMatches(new LinkedHashSet<>(Arrays.asList(first, second)), TEXTS);
+			}
+		}
+	}
+
+	@Test
+	public void allPatternsMatchLikeAnyMatches()
+	{
+		assertMatchesLikeAnyMatches(new LinkedHashSet<>(Arrays.asList(PATTERNS)), TEXTS);
+	}
+
+	@Test
+	public void randomPatternsMatchLikeAnyMatches()
+	{
+		// Two letters make overlapping and repeated segments likely
+		Random random = new Random(1);
+		for (int round = 0; round < 2_000; round++)
+		{
+			Set<String> patterns = new LinkedHashSet<>();
+			for (int i = random.nextInt(4) + 1; i > 0; i--)
+			{
+				patterns.add(randomString(random, "ab*", 6));
+			}
+			String[] texts = new String[8];
+			for (int i = 0; i < texts.length; i++)
+			{
+				texts[i] = randomString(random, "ab", 8);
+			}
+			assertMatchesLikeAnyMatches(patterns, texts);
+		}
+	}
+
+	@Test
+	public void nullsDontMatch()
+	{
+		assertNull(WildcardPatternSet.compile(Arrays.asList("*", null)).firstMatch(null));
+		assertTrue(WildcardPatternSet.compile(Collections.singletonList(null)).isEmpty());
+		assertEquals(WildcardMatcher.anyMatches(Collections.emptySet(), "Bones"), WildcardPatternSet.EMPTY.matches("Bones"));
+	}
+
+	private static void assertMatchesLikeAnyMatches(Set<String> patterns, String[] texts)
+	{
+		WildcardPatternSet set = WildcardPatternSet.compile(patterns);
+		for (String text : texts)
+		{
+			String match = set.firstMatch(text);
+			assertEquals(patterns + " against '" + text + "'", WildcardMatcher.anyMatches(patterns, text), match != null);
+			if (match != null)
+			{
+				assertTrue(match + " was reported for '" + text + "'", WildcardMatcher.matches(match, text));
+			}
+		}
+	}
+
+	private static String randomString(Random random, String alphabet, int maxLength)
+	{
+		StringBuilder builder = new StringBuilder();
+		for (int i = random.nextInt(maxLength + 1); i > 0; i--)
+		{
+			builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return builder.toString();
+	}
+}